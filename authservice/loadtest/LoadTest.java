@@ -0,0 +1,169 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Generador de carga mínimo, sin dependencias:
+//   java LoadTest.java <baseUrl> <escenario> <concurrencia> <segundos> [protocolo=http1|h2c] [gzip=false|true]
+// Escenarios:
+//   me       GET /auth/me con token (validación JWT + consulta JDBC del usuario)
+//   login    POST /auth/login (JDBC + hash en el pool dedicado)
+//   openapi  GET /v3/api-docs (JSON grande de springdoc)
+// Con h2c todas las peticiones se multiplexan en una conexión; con http1 hay una por hilo.
+// Imprime peticiones/s, percentiles de latencia (p50, p99, máx) y bytes de cuerpo por respuesta 2xx.
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String scenario = args.length > 1 ? args[1] : "me";
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        boolean http2 = args.length > 4 && "h2c".equals(args[4]);
+        boolean gzip = args.length > 5 && Boolean.parseBoolean(args[5]);
+
+        // Registro y login siempre por HTTP/1.1; el cliente medido usa el protocolo pedido
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpClient loadClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String email = "carga@example.com";
+        String password = "Secreta123";
+        post(client, baseUrl + "/auth/register",
+                "{\"username\":\"carga\",\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+        String loginBody = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> login = post(client, baseUrl + "/auth/login", loginBody);
+        Matcher matcher = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"").matcher(login.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No se pudo iniciar sesión: " + login.statusCode() + " " + login.body());
+        }
+        String token = matcher.group(1);
+
+        HttpRequest.Builder builder = switch (scenario) {
+            case "me" -> HttpRequest.newBuilder(URI.create(baseUrl + "/auth/me"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET();
+            case "login" -> HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(loginBody));
+            case "openapi" -> HttpRequest.newBuilder(URI.create(baseUrl + "/v3/api-docs")).GET();
+            default -> throw new IllegalArgumentException("Escenario desconocido: " + scenario);
+        };
+        if (gzip) {
+            builder.header("Accept-Encoding", "gzip"); // el cuerpo no se descomprime: se mide lo transferido
+        }
+        HttpRequest request = builder.build();
+
+        // Con h2c, una petición previa hace el upgrade: si los hilos arrancan sin conexión abierta,
+        // cada uno abre la suya y no hay multiplexación
+        if (http2) {
+            loadClient.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        // Calentamiento: el JIT, los pools y las conexiones (upgrade a h2c) no cuentan en la medición
+        run(loadClient, request, concurrency, Math.max(5, seconds / 5));
+
+        Result result = run(loadClient, request, concurrency, seconds);
+        System.out.printf("escenario=%s protocolo=%s gzip=%s concurrencia=%d segundos=%d%n",
+                scenario, http2 ? "h2c" : "http1", gzip, concurrency, seconds);
+        System.out.printf("ok=%d errores=%d rechazadas(503)=%d throughput=%.1f req/s bytes/respuesta=%d%n",
+                result.latencies.length, result.errors, result.rejected, result.latencies.length / (double) seconds,
+                result.latencies.length == 0 ? 0 : result.bytes / result.latencies.length);
+        System.out.printf("p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                percentile(result.latencies, 50), percentile(result.latencies, 99), percentile(result.latencies, 100));
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<long[]> perWorker = new ArrayList<>();
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            long[] samples = new long[1 << 16];
+            perWorker.add(samples);
+            int worker = w;
+            Thread thread = new Thread(() -> {
+                long[] buffer = samples;
+                int n = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() == 503) {
+                                // Cola de hashing llena: se respeta Retry-After en lugar de reintentar en bucle
+                                rejected.incrementAndGet();
+                                Thread.sleep(1000L * response.headers().firstValueAsLong("Retry-After").orElse(1));
+                                continue;
+                            }
+                            if (response.statusCode() / 100 != 2) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            bytes.addAndGet(response.body().length);
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, n * 2);
+                            perWorker.set(worker, buffer);
+                        }
+                        buffer[n++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    counts[worker] = n;
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        done.await();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(perWorker.get(w), 0, all, offset, counts[w]);
+            offset += counts[w];
+        }
+        Arrays.sort(all);
+        return new Result(all, errors.get(), rejected.get(), bytes.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Result(long[] latencies, long errors, long rejected, long bytes) {
+    }
+}
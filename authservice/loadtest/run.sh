@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+# Uso: ./loadtest/run.sh [escenario=me|login|openapi] [concurrencia=200] [segundos=30] [comparación=threads|http]
+#   threads: hilos de plataforma frente a hilos virtuales sobre H2 en memoria (el modo virtual requiere Java 21)
+#   http:    un solo arranque con h2c y compresión; se mide http1 / http1+gzip / h2c / h2c+gzip
+#            e imprime el máximo de conexiones TCP establecidas contra el puerto durante cada medición
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+SCENARIO=${1:-me}
+CONCURRENCY=${2:-200}
+SECONDS_RUN=${3:-30}
+COMPARE=${4:-threads}
+PORT=${PORT:-8081}
+JAR=target/authservice-0.0.1-SNAPSHOT.jar
+
+[ -f "$JAR" ] || ./mvnw -B -q package -DskipTests
+
+# Sin log de SQL ni límite de intentos de login: se mide el modo de ejecución, no el throttling
+APP_ARGS=(--server.port="$PORT" --spring.jpa.show-sql=false
+  --auth.login.rate-limit.email.burst=100000000 --auth.login.rate-limit.email.per-minute=100000000
+  --auth.login.rate-limit.ip.burst=100000000 --auth.login.rate-limit.ip.per-minute=100000000)
+
+# Arranca el jar en segundo plano (variables de entorno en "$@") y espera a que responda
+start_app() {
+  local log=$1
+  shift
+  env "$@" java -jar "$JAR" "${APP_ARGS[@]}" > "$log" 2>&1 &
+  PID=$!
+  for _ in $(seq 1 60); do
+    curl -s -o /dev/null "http://localhost:$PORT/" && break
+    kill -0 "$PID" 2>/dev/null || break
+    sleep 1
+  done
+  kill -0 "$PID" 2>/dev/null
+}
+
+stop_app() {
+  kill "$PID"
+  wait "$PID" 2>/dev/null || true
+}
+
+# Conexiones TCP establecidas con puerto local $PORT (IPv4 e IPv6, estado 01 en /proc/net/tcp*)
+connections() {
+  local hex
+  hex=$(printf '%04X' "$PORT")
+  cat /proc/net/tcp /proc/net/tcp6 2>/dev/null | awk -v p=":$hex" '$4 == "01" && substr($2, length($2) - 4) == p' | wc -l
+}
+
+# Ejecuta LoadTest con los argumentos extra dados y muestrea las conexiones cada segundo
+measure() {
+  local peak_file
+  peak_file=$(mktemp)
+  echo 0 > "$peak_file"
+  ( while :; do
+      c=$(connections)
+      [ "$c" -gt "$(cat "$peak_file")" ] && echo "$c" > "$peak_file"
+      sleep 1
+    done ) &
+  local sampler=$!
+  java loadtest/LoadTest.java "http://localhost:$PORT" "$SCENARIO" "$CONCURRENCY" "$SECONDS_RUN" "$@"
+  kill "$sampler"
+  wait "$sampler" 2>/dev/null || true
+  echo "conexiones (máx)=$(cat "$peak_file")"
+  rm -f "$peak_file"
+}
+
+if [ "$COMPARE" = http ]; then
+  if ! start_app target/loadtest-http.log AUTH_HTTP2=true AUTH_COMPRESSION=true; then
+    echo "== http: no arrancó (ver target/loadtest-http.log)"
+    exit 1
+  fi
+  for VARIANT in "http1 false" "http1 true" "h2c false" "h2c true"; do
+    read -r PROTOCOL GZIP <<< "$VARIANT"
+    echo "== $PROTOCOL gzip=$GZIP"
+    measure "$PROTOCOL" "$GZIP"
+  done
+  stop_app
+  exit 0
+fi
+
+for MODE in platform virtual; do
+  VIRTUAL=false
+  [ "$MODE" = virtual ] && VIRTUAL=true
+
+  # En modo virtual se registran los hilos portadores fijados (synchronized, nativo) en el log
+  if ! start_app "target/loadtest-$MODE.log" AUTH_VIRTUAL_THREADS=$VIRTUAL \
+      JAVA_TOOL_OPTIONS="$([ "$MODE" = virtual ] && echo -Djdk.tracePinnedThreads=short)"; then
+    echo "== $MODE: no arrancó (ver target/loadtest-$MODE.log)"
+    continue
+  fi
+
+  echo "== $MODE"
+  measure
+  stop_app
+done
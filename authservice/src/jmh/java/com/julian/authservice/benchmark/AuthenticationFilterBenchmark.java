@@ -0,0 +1,69 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.User;
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.CustomUserDetailsService;
+import com.julian.authservice.security.JwtAuthenticationFilter;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.UserRevocationIndex;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Filtro JWT completo por petición: parseo, denylist, marca de agua, resolución del usuario
+// y SecurityContext. authMode=database pasa por la caché de CustomUserDetailsService (hit);
+// authMode=claims arma el usuario con el rol del token.
+// Ejecutar: mvn -Pjmh test-compile exec:exec -Djmh.args="AuthenticationFilter -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+    @Param({"database", "claims"})
+    public String authMode;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkFixtures.user();
+        // Registro Prometheus real: la medida incluye el coste de las métricas
+        AuthMetrics metrics = new AuthMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        JwtUtil jwtUtil = new JwtUtil(BenchmarkFixtures.keyManager(), metrics);
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(
+                BenchmarkFixtures.userRepository(user), 10_000, Duration.ofMinutes(5));
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, new UserRevocationIndex(),
+                new AccessTokenDenylist(100_000, 0.01), metrics, authMode);
+
+        // La misma petición se reutiliza: OncePerRequestFilter limpia su atributo al terminar
+        request = new MockHttpServletRequest("GET", "/auth/me");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateAccessToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserCredentialsView;
+import com.julian.authservice.repository.UserRepository;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+// Objetos compartidos por los benchmarks, sin contexto de Spring ni base de datos
+final class BenchmarkFixtures {
+
+    static final String SECRET = "MiSuperClaveJWT2025_ParaProduccionSegura123456";
+    static final String EMAIL = "julian@example.com";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtKeyManager keyManager() {
+        return new JwtKeyManager(SECRET, "k1");
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("julian");
+        user.setEmail(EMAIL);
+        user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6RZy4GkQJ9yZ6n0kZ3gF1y2");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    // Repositorio en memoria: solo responde findCredentialsByEmail (lo único que usa CustomUserDetailsService)
+    static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findCredentialsByEmail" -> user.getEmail().equals(args[0])
+                            ? Optional.of(new UserCredentialsView(user.getId(), user.getEmail(), user.getPassword(), user.getRole()))
+                            : Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UserRepository(benchmark)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static JwtUtil jwtUtil() {
+        return new JwtUtil(keyManager());
+    }
+}
@@ -0,0 +1,45 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.ValidatedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Firma y verificación de un access token según jwt.algorithm.
+// HS256: HMAC con secreto compartido. ES256: ECDSA P-256 (verificable con el JWKS).
+// EdDSA no está disponible en jjwt 0.11.x, por eso no aparece.
+// Ejecutar: mvn -Pjmh test-compile exec:exec -Djmh.args="SigningAlgorithm -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // ES256 sin claves configuradas: par efímero, suficiente para medir
+        jwtUtil = new JwtUtil(new JwtKeyManager(BenchmarkFixtures.SECRET, "k1", "", algorithm, "", ""));
+        token = jwtUtil.generateAccessToken(BenchmarkFixtures.EMAIL, Role.USER);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateAccessToken(BenchmarkFixtures.EMAIL, Role.USER);
+    }
+
+    @Benchmark
+    public ValidatedToken verify() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,43 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.ValidatedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Formato estándar frente a compacto (jwt.format): coste de emitir y de validar.
+// El tamaño de los tokens está en el README; JwtTokenFormatTest comprueba que el compacto es menor.
+// Ejecutar: mvn -Pjmh test-compile exec:exec -Djmh.args="TokenFormat -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFormatBenchmark {
+
+    @Param({"standard", "compact"})
+    public String format;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(BenchmarkFixtures.keyManager(), AuthMetrics.noop(), format);
+        token = jwtUtil.generateAccessToken(BenchmarkFixtures.EMAIL, Role.USER);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateAccessToken(BenchmarkFixtures.EMAIL, Role.USER);
+    }
+
+    @Benchmark
+    public ValidatedToken validate() {
+        return jwtUtil.validateToken(token);
+    }
+}
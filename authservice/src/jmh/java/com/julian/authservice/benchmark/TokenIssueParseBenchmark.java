@@ -0,0 +1,77 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.security.JwtKeySet;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.ValidatedToken;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Coste de emitir y de parsear/verificar un token (validateToken = extractAllClaims + copia de
+// los claims que usa el filtro) según el número de claims extra y su tamaño.
+// extraClaims=0 equivale al access token que emite generateAccessToken.
+// Ejecutar: mvn -Pjmh test-compile exec:exec -Djmh.args="TokenIssueParse -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenIssueParseBenchmark {
+
+    @Param({"0", "8", "32"})
+    public int extraClaims;
+
+    @Param({"16", "256"})
+    public int claimLength;
+
+    private JwtUtil jwtUtil;
+    private JwtKeySet keys;
+    private String claimValue;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil();
+        keys = BenchmarkFixtures.keyManager().current();
+        claimValue = "x".repeat(claimLength);
+        token = build();
+    }
+
+    // Camino real de emisión (sin claims extra)
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(BenchmarkFixtures.EMAIL, Role.USER);
+    }
+
+    // Emisión con la misma cabecera/firma más N claims extra
+    @Benchmark
+    public String generateWithClaims() {
+        return build();
+    }
+
+    @Benchmark
+    public ValidatedToken validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    private String build() {
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam("kid", keys.getActiveKid())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(BenchmarkFixtures.EMAIL)
+                .claim("role", Role.USER.name())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + JwtUtil.ACCESS_TOKEN_MILLIS));
+        for (int i = 0; i < extraClaims; i++) {
+            builder.claim("c" + i, claimValue);
+        }
+        return builder.signWith(keys.getSigningKey(), keys.getAlgorithm()).compact();
+    }
+}
@@ -0,0 +1,109 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.controller.LoginResponseHttpMessageConverter;
+import com.julian.authservice.dto.LoginResponse;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de la respuesta de login/refresh: Jackson sobre LoginResponse (login),
+// Jackson sobre el HashMap que construía /auth/refresh, y el escritor específico.
+// La salida se descarta; con -prof gc, gc.alloc.rate.norm = bytes por respuesta.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenResponseSerializationBenchmark {
+
+    private MappingJackson2HttpMessageConverter jackson;
+    private LoginResponseHttpMessageConverter specialized;
+    private LoginResponse response;
+    private DiscardingOutputMessage output;
+
+    @Setup
+    public void setUp() {
+        jackson = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        specialized = new LoginResponseHttpMessageConverter(4);
+
+        JwtUtil jwtUtil = new JwtUtil(new JwtKeyManager("MiSuperClaveJWT2025_ParaProduccionSegura123456", "k1"));
+        response = new LoginResponse(
+                jwtUtil.generateAccessToken("julian@example.com", Role.USER, "3f2c9a1e-5b7d-4c8e-9f01-23456789abcd"),
+                jwtUtil.generateRefreshToken("julian@example.com", UUID.randomUUID().toString(),
+                        new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(7))));
+        output = new DiscardingOutputMessage();
+    }
+
+    // Login antes del cambio: reflexión de Jackson sobre el DTO
+    @Benchmark
+    public long jacksonLoginResponse() throws IOException {
+        output.reset();
+        jackson.write(response, MediaType.APPLICATION_JSON, output);
+        return output.count;
+    }
+
+    // Refresh antes del cambio: HashMap intermedio + Jackson
+    @Benchmark
+    public long jacksonRefreshMap() throws IOException {
+        output.reset();
+        Map<String, String> body = new HashMap<>();
+        body.put("accessToken", response.getAccessToken());
+        body.put("refreshToken", response.getRefreshToken());
+        jackson.write(body, MediaType.APPLICATION_JSON, output);
+        return output.count;
+    }
+
+    // Camino actual de los dos endpoints
+    @Benchmark
+    public long specializedWriter() throws IOException {
+        output.reset();
+        specialized.write(response, MediaType.APPLICATION_JSON, output);
+        return output.count;
+    }
+
+    // Cuenta los bytes y los descarta, como un socket que no cuesta nada
+    private static final class DiscardingOutputMessage extends OutputStream implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private long count;
+
+        void reset() {
+            headers.clear();
+            count = 0;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return this;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
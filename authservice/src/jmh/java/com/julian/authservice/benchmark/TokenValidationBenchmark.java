@@ -0,0 +1,56 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.ValidatedToken;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara la validación que hacía el filtro (extractUsername + isTokenValid = 3 parseos
+// con verificación HMAC) contra validateToken (1 parseo). Con -prof gc se ve gc.alloc.rate.norm
+// (bytes por petición).
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new JwtKeyManager("MiSuperClaveJWT2025_ParaProduccionSegura123456", "k1"));
+
+        User user = new User();
+        user.setEmail("julian@example.com");
+        user.setRole(Role.USER);
+        token = jwtUtil.generateAccessToken(user);
+
+        userDetails = new org.springframework.security.core.userdetails.User(
+                user.getEmail(), "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    // Camino anterior del filtro: tres parseos del mismo token
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String email = jwtUtil.extractUsername(token);
+        return email != null && jwtUtil.isTokenValid(token, userDetails);
+    }
+
+    // Camino actual: un parseo y reutilización del resultado
+    @Benchmark
+    public boolean parseOnce() {
+        ValidatedToken validated = jwtUtil.validateToken(token);
+        return jwtUtil.isTokenValid(validated, userDetails);
+    }
+}
@@ -0,0 +1,41 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.model.User;
+import com.julian.authservice.security.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// loadUserByUsername con la caché caliente (hit) o tras invalidar la entrada (miss: carga
+// desde un repositorio en memoria + construcción de AuthUserDetails). No incluye JDBC.
+// Ejecutar: mvn -Pjmh test-compile exec:exec -Djmh.args="UserDetailsLookup -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsLookupBenchmark {
+
+    private CustomUserDetailsService service;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkFixtures.user();
+        service = new CustomUserDetailsService(BenchmarkFixtures.userRepository(user), 10_000, Duration.ofMinutes(5));
+        service.loadUserByUsername(BenchmarkFixtures.EMAIL);
+    }
+
+    @Benchmark
+    public UserDetails cacheHit() {
+        return service.loadUserByUsername(BenchmarkFixtures.EMAIL);
+    }
+
+    @Benchmark
+    public UserDetails cacheMiss() {
+        service.evict(BenchmarkFixtures.EMAIL);
+        return service.loadUserByUsername(BenchmarkFixtures.EMAIL);
+    }
+}
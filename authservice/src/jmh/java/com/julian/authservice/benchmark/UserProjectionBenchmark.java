@@ -0,0 +1,74 @@
+package com.julian.authservice.benchmark;
+
+import com.julian.authservice.AuthserviceApplication;
+import com.julian.authservice.dto.UserDTO;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserCredentialsView;
+import com.julian.authservice.repository.UserRepository;
+import com.julian.authservice.security.AuthUserDetails;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Lecturas de /auth/me y del login/UserDetails contra H2 + Hibernate reales: entidad User
+// completa frente a las proyecciones de solo lectura (select new ...). Con -prof gc se ve
+// gc.alloc.rate.norm (bytes por consulta).
+// Ejecutar: mvn -Pjmh test-compile exec:exec -Djmh.args="UserProjectionBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserProjectionBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AuthserviceApplication.class)
+                .run("--server.port=0", // la configuración de seguridad necesita el contexto web
+                        "--spring.datasource.url=jdbc:h2:mem:projection-bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--auth.password.calibrate=false",
+                        "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+
+        User user = BenchmarkFixtures.user();
+        user.setId(null);
+        userRepository.saveAndFlush(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // GET /auth/me antes: entidad completa (con el hash) y copia al DTO
+    @Benchmark
+    public UserDTO profileEntity() {
+        User user = userRepository.findByEmail(BenchmarkFixtures.EMAIL).orElseThrow();
+        return new UserDTO(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    @Benchmark
+    public UserDTO profileProjection() {
+        return userRepository.findProfileByEmail(BenchmarkFixtures.EMAIL).orElseThrow();
+    }
+
+    // Login / fallo de caché de UserDetails antes: entidad completa
+    @Benchmark
+    public AuthUserDetails credentialsEntity() {
+        User user = userRepository.findByEmail(BenchmarkFixtures.EMAIL).orElseThrow();
+        return new AuthUserDetails(user.getEmail(), user.getPassword(), user.getRole());
+    }
+
+    @Benchmark
+    public AuthUserDetails credentialsProjection() {
+        UserCredentialsView user = userRepository.findCredentialsByEmail(BenchmarkFixtures.EMAIL).orElseThrow();
+        return new AuthUserDetails(user.getEmail(), user.getPassword(), user.getRole());
+    }
+}
@@ -0,0 +1,16 @@
+package com.julian.authservice.bus;
+
+import java.util.function.Consumer;
+
+// Difusión de invalidaciones entre réplicas. publish() entrega el evento a los suscriptores
+// locales antes de volver (la réplica que hace el cambio nunca queda desfasada) y, según la
+// implementación, al resto de nodos. Se elige con auth.bus.type (ver InvalidationBusConfig).
+public interface InvalidationBus {
+
+    void publish(InvalidationEvent event);
+
+    void subscribe(Consumer<InvalidationEvent> subscriber);
+
+    default void close() {
+    }
+}
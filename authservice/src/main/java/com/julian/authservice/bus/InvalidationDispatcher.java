@@ -0,0 +1,49 @@
+package com.julian.authservice.bus;
+
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.CustomUserDetailsService;
+import com.julian.authservice.security.UserRevocationIndex;
+import com.julian.authservice.service.ProfileResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+// Aplica cada invalidación (propia o de otra réplica) a las estructuras en memoria
+@Component
+public class InvalidationDispatcher {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRevocationIndex revocationIndex;
+    private final AccessTokenDenylist denylist;
+    private final ProfileResponseCache profileCache;
+
+    @Autowired
+    public InvalidationDispatcher(InvalidationBus bus,
+                                  CustomUserDetailsService userDetailsService,
+                                  UserRevocationIndex revocationIndex,
+                                  AccessTokenDenylist denylist,
+                                  ProfileResponseCache profileCache) {
+        this.userDetailsService = userDetailsService;
+        this.revocationIndex = revocationIndex;
+        this.denylist = denylist;
+        this.profileCache = profileCache;
+        bus.subscribe(this::apply);
+    }
+
+    void apply(InvalidationEvent event) {
+        switch (event.getType()) {
+            case USER_CHANGED -> {
+                userDetailsService.evict(event.getKey());
+                profileCache.evict(event.getKey());
+            }
+            case USER_REVOKED -> {
+                // La marca viaja con el instante de origen: igual en todas las réplicas
+                userDetailsService.evict(event.getKey());
+                profileCache.evict(event.getKey());
+                revocationIndex.revokeUser(event.getKey(), Instant.ofEpochMilli(event.getTimestamp()));
+            }
+            case TOKEN_REVOKED -> denylist.revoke(event.getKey(), Instant.ofEpochMilli(event.getTimestamp()));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.julian.authservice.bus;
+
+import com.julian.authservice.security.JwtUtil;
+
+import java.time.Instant;
+
+// Cambio que invalida estado en memoria de todas las réplicas. Solo lleva claves
+// (email, jti, sid) y un instante; nunca secretos ni datos del usuario.
+public final class InvalidationEvent {
+
+    public enum Type {
+        USER_CHANGED,   // fila de users modificada: descartar cachés del usuario
+        USER_REVOKED,   // marca de agua: tokens emitidos hasta 'timestamp' dejan de valer
+        TOKEN_REVOKED   // jti o sid a la denylist hasta 'timestamp' (su exp)
+    }
+
+    private final Type type;
+    private final String key;
+    private final long timestamp;
+
+    public InvalidationEvent(Type type, String key, long timestamp) {
+        this.type = type;
+        this.key = key;
+        this.timestamp = timestamp;
+    }
+
+    public static InvalidationEvent userChanged(String email) {
+        return new InvalidationEvent(Type.USER_CHANGED, email, System.currentTimeMillis());
+    }
+
+    public static InvalidationEvent userRevoked(String email) {
+        return new InvalidationEvent(Type.USER_REVOKED, email, System.currentTimeMillis());
+    }
+
+    // Sin exp conocida se recuerda durante la vida máxima de un access token
+    public static InvalidationEvent tokenRevoked(String id, Instant expiration) {
+        long expiresAt = expiration != null
+                ? expiration.toEpochMilli()
+                : System.currentTimeMillis() + JwtUtil.ACCESS_TOKEN_MILLIS;
+        return new InvalidationEvent(Type.TOKEN_REVOKED, id, expiresAt);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + key + ")";
+    }
+}
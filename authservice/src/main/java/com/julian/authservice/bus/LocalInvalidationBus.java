@@ -0,0 +1,37 @@
+package com.julian.authservice.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Implementación por defecto: una sola réplica, entrega síncrona en el mismo hilo
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalInvalidationBus.class);
+
+    private final List<Consumer<InvalidationEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        deliver(event);
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    // Un suscriptor que falla no impide que los demás reciban el evento
+    protected void deliver(InvalidationEvent event) {
+        for (Consumer<InvalidationEvent> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException ex) {
+                log.warn("Suscriptor de invalidaciones falló con {}: {}", event, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.julian.authservice.bus;
+
+import com.julian.authservice.security.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.StandardSocketOptions;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.UUID;
+
+// Réplicas en la misma red: cada evento es un datagrama UDP a un grupo multicast.
+// Sin broker ni servicios externos; con auth.bus.multicast.interface=lo varias instancias
+// en la misma máquina se ven entre sí. Es "best effort": un datagrama perdido deja la caché
+// desfasada hasta su TTL, igual que sin bus. auth.bus.secret es obligatoria: cada mensaje va
+// firmado (HMAC-SHA256) y se descartan los que no verifican o traen un instante imposible.
+public class MulticastInvalidationBus extends LocalInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationBus.class);
+
+    private static final byte VERSION = 1;
+    private static final int MAC_LENGTH = 32;
+    private static final int MAX_PACKET = 1024;
+
+    // Diferencia de reloj tolerada entre réplicas. Una marca de agua en el futuro bloquearía al
+    // usuario hasta esa fecha (UserRevocationIndex no purga las futuras)
+    static final long MAX_CLOCK_SKEW_MILLIS = 5_000;
+
+    private final MulticastSocket socket;
+    private final InetSocketAddress group;
+    private final UUID origin = UUID.randomUUID(); // los datagramas propios vuelven por loopback
+    private final SecretKeySpec macKey;
+    private final Thread receiver;
+    private volatile boolean closed;
+
+    public MulticastInvalidationBus(String groupAddress, int port, String interfaceName, int ttl, String secret)
+            throws IOException {
+        if (secret == null || secret.isBlank()) {
+            // Sin firma cualquier host del grupo podría revocar usuarios o tokens
+            throw new IllegalStateException("auth.bus.secret es obligatoria con auth.bus.type=multicast");
+        }
+        this.group = new InetSocketAddress(InetAddress.getByName(groupAddress), port);
+        this.macKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        NetworkInterface networkInterface = interfaceName == null || interfaceName.isBlank()
+                ? null
+                : NetworkInterface.getByName(interfaceName);
+        if (interfaceName != null && !interfaceName.isBlank() && networkInterface == null) {
+            throw new IllegalArgumentException("auth.bus.multicast.interface desconocida: " + interfaceName);
+        }
+
+        this.socket = new MulticastSocket(port); // SO_REUSEADDR: varias instancias en el mismo puerto
+        socket.setTimeToLive(ttl);
+        socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(group, networkInterface);
+
+        log.info("Bus de invalidaciones multicast en {} (interfaz {}, ttl {})",
+                group, networkInterface != null ? networkInterface.getName() : "por defecto", ttl);
+
+        this.receiver = new Thread(this::receiveLoop, "invalidation-bus-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        deliver(event);
+        try {
+            byte[] payload = encode(event);
+            socket.send(new DatagramPacket(payload, payload.length, group));
+        } catch (IOException | GeneralSecurityException ex) {
+            // El cambio ya está aplicado aquí; las demás réplicas se pondrán al día por TTL
+            log.warn("No se pudo difundir {}: {}", event, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        socket.close(); // desbloquea receive()
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[MAX_PACKET];
+        while (!closed) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                InvalidationEvent event = decode(Arrays.copyOfRange(buffer, 0, packet.getLength()));
+                if (event != null) {
+                    deliver(event);
+                }
+            } catch (IOException | GeneralSecurityException | RuntimeException ex) {
+                if (!closed) {
+                    log.warn("Datagrama de invalidación descartado: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // versión | origen (UUID) | tipo | clave | timestamp | HMAC
+    byte[] encode(InvalidationEvent event) throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        out.writeLong(origin.getMostSignificantBits());
+        out.writeLong(origin.getLeastSignificantBits());
+        out.writeByte(event.getType().ordinal());
+        out.writeUTF(event.getKey());
+        out.writeLong(event.getTimestamp());
+        out.write(mac(bytes.toByteArray()));
+        return bytes.toByteArray();
+    }
+
+    // null para los mensajes propios; excepción si el mensaje no es válido
+    InvalidationEvent decode(byte[] payload) throws IOException, GeneralSecurityException {
+        int length = payload.length - MAC_LENGTH;
+        if (length <= 0 || !MessageDigest.isEqual(mac(Arrays.copyOf(payload, length)),
+                Arrays.copyOfRange(payload, length, payload.length))) {
+            throw new GeneralSecurityException("firma inválida");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, 0, length));
+        if (in.readByte() != VERSION) {
+            throw new IOException("versión desconocida");
+        }
+        UUID sender = new UUID(in.readLong(), in.readLong());
+        if (sender.equals(origin)) {
+            return null; // ya entregado en publish()
+        }
+        InvalidationEvent.Type type = InvalidationEvent.Type.values()[in.readUnsignedByte()];
+        InvalidationEvent event = new InvalidationEvent(type, in.readUTF(), in.readLong());
+        checkTimestamp(event, System.currentTimeMillis());
+        return event;
+    }
+
+    // USER_REVOKED lleva el instante de la revocación y TOKEN_REVOKED la exp de un access token
+    static void checkTimestamp(InvalidationEvent event, long nowMillis) throws IOException {
+        long limit = switch (event.getType()) {
+            case USER_REVOKED -> nowMillis + MAX_CLOCK_SKEW_MILLIS;
+            case TOKEN_REVOKED -> nowMillis + JwtUtil.ACCESS_TOKEN_MILLIS + MAX_CLOCK_SKEW_MILLIS;
+            case USER_CHANGED -> Long.MAX_VALUE; // no usa el instante
+        };
+        if (event.getTimestamp() > limit) {
+            throw new IOException("instante en el futuro: " + event);
+        }
+    }
+
+    private byte[] mac(byte[] data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(macKey);
+        return mac.doFinal(data);
+    }
+}
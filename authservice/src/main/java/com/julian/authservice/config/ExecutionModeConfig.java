@@ -0,0 +1,37 @@
+package com.julian.authservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Modo de ejecución de las peticiones: hilos de plataforma del pool de Tomcat (por defecto)
+// o un hilo virtual por petición (spring.threads.virtual.enabled=true, requiere Java 21).
+// Spring Boot ignora la propiedad en silencio con Java < 21: aquí se falla al arrancar.
+// Con hilos virtuales el límite real de concurrencia contra la base de datos es el pool
+// de Hikari (acotado y sin 'synchronized' desde la 5.1, así que no fija el hilo portador).
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    @Autowired
+    public ExecutionModeConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               DataSource dataSource) {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreads && javaVersion < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true requiere Java 21 o superior (actual: "
+                    + javaVersion + ")");
+        }
+
+        String pool = dataSource instanceof HikariDataSource hikari
+                ? "hikari max=" + hikari.getMaximumPoolSize() + ", timeout=" + hikari.getConnectionTimeout() + " ms"
+                : dataSource.getClass().getSimpleName();
+        log.info("Ejecución de peticiones: {} (Java {}, {})",
+                virtualThreads ? "hilos virtuales" : "pool de hilos de plataforma", javaVersion, pool);
+    }
+}
@@ -0,0 +1,29 @@
+package com.julian.authservice.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Límites de streams de HTTP/2 en Tomcat (solo si server.http2.enabled=true).
+// Spring Boot no los expone como propiedades; se ajustan sobre el Http2Protocol que registra.
+// Los streams por encima de max-concurrent-stream-execution esperan en la conexión, no en el pool.
+@Configuration
+public class Http2Config {
+
+    @Bean
+    public TomcatConnectorCustomizer http2StreamLimits(
+            @Value("${auth.http2.max-concurrent-streams:256}") int maxConcurrentStreams,
+            @Value("${auth.http2.max-concurrent-stream-execution:200}") int maxConcurrentStreamExecution) {
+        return connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.julian.authservice.config;
+
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.bus.LocalInvalidationBus;
+import com.julian.authservice.bus.MulticastInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+// auth.bus.type=local (una réplica) o multicast (varias réplicas en la misma red)
+@Configuration
+public class InvalidationBusConfig {
+
+    @Bean(destroyMethod = "close")
+    public InvalidationBus invalidationBus(@Value("${auth.bus.type:local}") String type,
+                                           @Value("${auth.bus.multicast.group:239.255.27.1}") String group,
+                                           @Value("${auth.bus.multicast.port:45588}") int port,
+                                           @Value("${auth.bus.multicast.interface:}") String networkInterface,
+                                           @Value("${auth.bus.multicast.ttl:1}") int ttl,
+                                           @Value("${auth.bus.secret:}") String secret) throws IOException {
+        return switch (type) {
+            case "local" -> new LocalInvalidationBus();
+            case "multicast" -> new MulticastInvalidationBus(group, port, networkInterface, ttl, secret);
+            default -> throw new IllegalArgumentException("auth.bus.type no soportado: " + type);
+        };
+    }
+}
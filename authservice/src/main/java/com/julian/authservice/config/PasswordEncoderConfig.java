@@ -0,0 +1,69 @@
+package com.julian.authservice.config;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.security.PasswordCostCalibrator;
+import com.julian.authservice.security.TimedPasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Encoder delegante: los hashes llevan prefijo {bcrypt}/{argon2}/{pbkdf2} y conviven.
+// Los hashes antiguos sin prefijo se validan como BCrypt y se re-hashean en el login.
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${auth.password.target-millis:50}") long targetMillis,
+                                           @Value("${auth.password.calibrate:true}") boolean calibrate,
+                                           @Value("${auth.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                                           AuthMetrics metrics) {
+        int bcryptStrength = PasswordCostCalibrator.MIN_BCRYPT_STRENGTH;
+        int argon2Iterations = PasswordCostCalibrator.MIN_ARGON2_ITERATIONS;
+
+        // Pbkdf2PasswordEncoder no guarda las iteraciones en el hash: matches() usa las del encoder.
+        // Si cambiaran entre arranques (calibración) dejarían de validar todos los {pbkdf2} guardados,
+        // así que el valor es fijo por configuración y nunca se calibra
+        if (pbkdf2Iterations < PasswordCostCalibrator.MIN_PBKDF2_ITERATIONS) {
+            throw new IllegalArgumentException("auth.password.pbkdf2-iterations debe ser >= "
+                    + PasswordCostCalibrator.MIN_PBKDF2_ITERATIONS + ": " + pbkdf2Iterations);
+        }
+
+        // Solo se calibra el algoritmo con el que se codifica (BCrypt y Argon2 guardan su coste
+        // en el hash); los demás usan sus mínimos
+        switch (algorithm) {
+            case "bcrypt" -> {
+                if (calibrate) bcryptStrength = PasswordCostCalibrator.bcryptStrength(targetMillis);
+            }
+            case "pbkdf2" -> {
+                // sin calibración: ver arriba
+            }
+            case "argon2" -> {
+                if (calibrate) argon2Iterations = PasswordCostCalibrator.argon2Iterations(targetMillis);
+            }
+            default -> throw new IllegalArgumentException("auth.password.algorithm no soportado: " + algorithm);
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", PasswordCostCalibrator.pbkdf2(pbkdf2Iterations));
+        encoders.put("argon2", PasswordCostCalibrator.argon2(argon2Iterations));
+
+        log.info("Hash de contraseñas: {} (bcrypt={}, pbkdf2={}, argon2={}, objetivo={} ms)",
+                algorithm, bcryptStrength, pbkdf2Iterations, argon2Iterations, targetMillis);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new TimedPasswordEncoder(encoder, metrics);
+    }
+}
@@ -0,0 +1,10 @@
+package com.julian.authservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas periódicas en segundo plano (purga de tokens expirados, etc.)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -14,8 +14,6 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.core.env.Environment;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
 
@@ -37,12 +35,23 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         boolean isDev = Arrays.asList(env.getActiveProfiles()).contains("dev");
+        // Puerto de gestión (perfil prod): solo accesible desde la red interna / el scraper
+        int managementPort = env.getProperty("management.server.port", Integer.class, -1);
 
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/register", "/auth/login", "/auth/refresh",
                                 "/", "/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Sondas de salud: públicas
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Métricas (logins por resultado, estado del pool de hashing...): sin autenticar solo
+                        // por el puerto de gestión; por el puerto de la aplicación hace falta rol ADMIN
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
+                        // Claves públicas de verificación (JWKS)
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         .requestMatchers(isDev ? "/h2-console/**" : "/never-expose-this/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -55,11 +64,6 @@ public class SecurityConfig {
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     // Requerido para autenticación en login si lo necesitas más adelante
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
@@ -0,0 +1,25 @@
+package com.julian.authservice.config;
+
+import com.julian.authservice.controller.LoginResponseHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final int tokenBufferPoolSize;
+
+    public WebConfig(@Value("${auth.token-response.buffer-pool-size:64}") int tokenBufferPoolSize) {
+        this.tokenBufferPoolSize = tokenBufferPoolSize;
+    }
+
+    // Delante de Jackson: las respuestas de login y refresh usan el escritor específico
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new LoginResponseHttpMessageConverter(tokenBufferPoolSize));
+    }
+}
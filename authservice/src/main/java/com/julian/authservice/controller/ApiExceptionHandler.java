@@ -0,0 +1,48 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.service.HashingCapacityExceededException;
+import com.julian.authservice.service.SessionCapacityExceededException;
+import com.julian.authservice.service.TooManyLoginAttemptsException;
+import com.julian.authservice.service.UserConflictException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // Back-pressure del pool de hashing: 503 + Retry-After
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleHashingCapacity(HashingCapacityExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Cola de sesiones llena porque la base de datos no acepta altas: 503 + Retry-After
+    @ExceptionHandler(SessionCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleSessionCapacity(SessionCapacityExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Límite de intentos de login por email o IP: 429 + Retry-After
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyLoginAttempts(TooManyLoginAttemptsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Email o username duplicados
+    @ExceptionHandler(UserConflictException.class)
+    public ResponseEntity<Map<String, String>> handleUserConflict(UserConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", ex.getMessage(), "field", ex.getField()));
+    }
+}
@@ -1,26 +1,55 @@
 package com.julian.authservice.controller;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.bus.InvalidationEvent;
+import com.julian.authservice.dto.ChangePasswordRequest;
 import com.julian.authservice.dto.LoginRequest;
 import com.julian.authservice.dto.LoginResponse;
 import com.julian.authservice.dto.RegisterRequest;
+import com.julian.authservice.dto.SessionDTO;
 import com.julian.authservice.dto.UserDTO;
+import com.julian.authservice.model.Role;
 import com.julian.authservice.model.User;
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.CustomUserDetailsService;
+import com.julian.authservice.security.JwtAuthenticationFilter;
 import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.ValidatedToken;
+import com.julian.authservice.service.LoginRateLimiter;
+import com.julian.authservice.service.PasswordHashingExecutor;
+import com.julian.authservice.service.ProfileResponseCache;
+import com.julian.authservice.service.RefreshTokenReuseException;
+import com.julian.authservice.service.RefreshTokenService;
+import com.julian.authservice.service.SessionCapacityExceededException;
+import com.julian.authservice.service.SessionService;
+import com.julian.authservice.service.UserImportService;
 import com.julian.authservice.service.UserService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -30,56 +59,145 @@ public class AuthController {
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final UserImportService userImportService;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenDenylist denylist;
+    private final LoginRateLimiter loginRateLimiter;
+    private final SessionService sessionService;
+    private final InvalidationBus invalidationBus;
 
+    private final ProfileResponseCache profileCache;
+
+    private static final int MAX_SESSIONS_PAGE_SIZE = 100;
+
+    // Datos personales: solo la caché del navegador, y siempre revalidando con el ETag
+    private static final CacheControl PROFILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     @Autowired
-    public AuthController(UserService userService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+    public AuthController(UserService userService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder,
+                          CustomUserDetailsService userDetailsService, PasswordHashingExecutor hashingExecutor,
+                          UserImportService userImportService, RefreshTokenService refreshTokenService,
+                          AccessTokenDenylist denylist, LoginRateLimiter loginRateLimiter,
+                          SessionService sessionService, InvalidationBus invalidationBus,
+                          ProfileResponseCache profileCache) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.hashingExecutor = hashingExecutor;
+        this.userImportService = userImportService;
+        this.refreshTokenService = refreshTokenService;
+        this.denylist = denylist;
+        this.loginRateLimiter = loginRateLimiter;
+        this.sessionService = sessionService;
+        this.invalidationBus = invalidationBus;
+        this.profileCache = profileCache;
     }
 
     @Operation(summary = "Registrar un nuevo usuario")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Usuario registrado con éxito"),
-            @ApiResponse(responseCode = "400", description = "Datos inválidos o usuario ya existe")
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "409", description = "Email o nombre de usuario ya registrados"),
+            @ApiResponse(responseCode = "503", description = "Servicio saturado (ver Retry-After)")
     }) // Anotaciones de descripción del metodo
     @PostMapping("/register")
-    public ResponseEntity<User> registerUser(@Valid @RequestBody RegisterRequest request) {
-        User newUser = userService.registerUser(request);
-        return new ResponseEntity<>(newUser, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<User>> registerUser(@Valid @RequestBody RegisterRequest request) {
+        // El hash se calcula en el pool dedicado; el hilo de Tomcat queda libre
+        return hashingExecutor.submit(() -> userService.registerUser(request))
+                .thenApply(newUser -> new ResponseEntity<>(newUser, HttpStatus.CREATED));
     }
 
+    @Operation(summary = "Importación masiva de usuarios (NDJSON o CSV); responde un resultado NDJSON por fila")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/admin/users/import",
+            consumes = {"application/x-ndjson", "text/csv"},
+            produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             HttpServletRequest request) {
+        UserImportService.Format format = contentType.startsWith("text/csv")
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+
+        // Se lee el cuerpo y se escriben los resultados por lotes, sin cargar el archivo en memoria
+        StreamingResponseBody body = out -> userImportService.importUsers(request.getInputStream(), format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Credenciales correctas"),
+            @ApiResponse(responseCode = "401", description = "Credenciales incorrectas"),
+            @ApiResponse(responseCode = "429", description = "Demasiados intentos (ver Retry-After)"),
+            @ApiResponse(responseCode = "503", description = "Servicio saturado (ver Retry-After)")
+    })
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
-        try {
-            LoginResponse response = userService.loginUser(loginRequest);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException ex) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest loginRequest,
+                                                                  HttpServletRequest request) {
+        // Antes del hash: un intento rechazado no gasta BCrypt ni sitio en la cola
+        loginRateLimiter.check(loginRequest.getEmail(), request.getRemoteAddr());
+
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        String ipAddress = request.getRemoteAddr();
+        return hashingExecutor.submit(() -> userService.loginUser(loginRequest, userAgent, ipAddress))
+                .thenApply(response -> {
+                    loginRateLimiter.reset(loginRequest.getEmail());
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(ex -> {
+                    // Registro de sesiones saturado: 503 en ApiExceptionHandler, no "credenciales incorrectas"
+                    if (ex.getCause() instanceof SessionCapacityExceededException saturated) {
+                        throw saturated;
+                    }
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                });
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<Map<String, String>> refreshToken(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> request) {
         String refreshToken = request.get("refreshToken");
 
         try {
-            String userEmail = jwtUtil.extractUsername(refreshToken);
-            User user = userService.findByEmail(userEmail);
+            // Rotación: el refresh token usado deja de servir y se entrega uno nuevo
+            // Mismo cuerpo que el login: lo escribe LoginResponseHttpMessageConverter, sin mapa intermedio
+            return ResponseEntity.ok(refreshTokenService.rotate(refreshToken));
 
-            if (!jwtUtil.isTokenExpired(refreshToken)) {
-                String newAccessToken = jwtUtil.generateAccessToken(user);
+        } catch (ExpiredJwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Refresh token expirado"));
+        } catch (RefreshTokenReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Refresh token inválido"));
+        }
+    }
 
-                Map<String, String> response = new HashMap<>();
-                response.put("accessToken", newAccessToken);
-                return ResponseEntity.ok(response);
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Refresh token expirado"));
+    @Operation(summary = "Cerrar sesión: revoca el access token, su sesión y, si se envía, la familia del refresh token")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+                                       @RequestBody(required = false) Map<String, String> request) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            ValidatedToken token = jwtUtil.validateToken(authHeader.substring(7));
+            invalidationBus.publish(InvalidationEvent.tokenRevoked(token.getId(), token.getExpiration()));
+
+            // Tokens con 'sid': se cierra la sesión entera (fila, refresh tokens y access tokens)
+            if (token.getSessionId() != null) {
+                sessionService.revoke(token.getSessionId());
+                refreshTokenService.revokeFamily(token.getSessionId());
             }
 
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Refresh token inválido"));
+            String refreshToken = request != null ? request.get("refreshToken") : null;
+            if (refreshToken != null) {
+                refreshTokenService.revoke(refreshToken, token.getSubject());
+            }
+            return ResponseEntity.noContent().build();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
 
@@ -88,11 +206,73 @@ public class AuthController {
         return ResponseEntity.ok("¡Acceso autorizado con JWT!");
     }
 
-    @GetMapping("/me")
-    public ResponseEntity<UserDTO> getProfile() {
-        User user = userService.getCurrentUser();
-        UserDTO userDTO = new UserDTO(user.getId(), user.getUsername(), user.getEmail());
-        return ResponseEntity.ok(userDTO);
+    @Operation(summary = "Perfil del usuario autenticado (ETag por versión de la fila; If-None-Match responde 304)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = UserDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado")
+    })
+    @GetMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getProfile(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Cuerpo ya serializado en caché por usuario: un sondeo no toca la base de datos ni Jackson
+        ProfileResponseCache.CachedProfile profile = profileCache.get(userService.currentEmail());
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(profile.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(profile.getEtag())
+                    .cacheControl(PROFILE_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(profile.getEtag())
+                .cacheControl(PROFILE_CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(profile.getBody());
+    }
+
+    @Operation(summary = "Sesiones abiertas del usuario autenticado (paginado, la más reciente primero)")
+    @GetMapping("/me/sessions")
+    public ResponseEntity<Map<String, Object>> listSessions(@RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            HttpServletRequest request) {
+        String currentSessionId = (String) request.getAttribute(JwtAuthenticationFilter.SESSION_ATTRIBUTE);
+        Page<SessionDTO> sessions = userService.listSessions(currentSessionId,
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SESSIONS_PAGE_SIZE));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", sessions.getContent());
+        response.put("page", sessions.getNumber());
+        response.put("size", sessions.getSize());
+        response.put("totalElements", sessions.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Cerrar una sesión propia (sus access tokens dejan de aceptarse al momento)")
+    @DeleteMapping("/me/sessions/{id}")
+    public ResponseEntity<Void> revokeSession(@PathVariable String id) {
+        try {
+            userService.revokeSession(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @Operation(summary = "Cerrar todas las sesiones del usuario autenticado, incluida la actual")
+    @DeleteMapping("/me/sessions")
+    public ResponseEntity<Void> revokeAllSessions() {
+        userService.revokeAllSessions();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Cambiar la contraseña del usuario autenticado (revoca sus tokens)")
+    @PutMapping("/me/password")
+    public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
+        try {
+            userService.changePassword(request);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -101,4 +281,62 @@ public class AuthController {
         return ResponseEntity.ok("Panel de administración");
     }
 
+    @Operation(summary = "Contadores de la caché de UserDetails")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/cache/users")
+    public ResponseEntity<Map<String, Object>> userCacheStats() {
+        CacheStats stats = userDetailsService.stats();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", userDetailsService.size());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("evictions", stats.evictionCount());
+        response.put("hitRate", stats.hitRate());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Cambiar el rol de un usuario (revoca sus tokens)")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/admin/users/{id}/role")
+    public ResponseEntity<UserDTO> changeRole(@PathVariable Long id, @RequestParam Role role) {
+        try {
+            User user = userService.changeRole(id, role);
+            return ResponseEntity.ok(new UserDTO(user.getId(), user.getUsername(), user.getEmail()));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @Operation(summary = "Revocar todos los tokens emitidos a un usuario hasta ahora")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/users/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long id) {
+        try {
+            userService.revokeTokens(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @Operation(summary = "Revocar un access token concreto por su jti")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/tokens/{jti}/revoke")
+    public ResponseEntity<Void> revokeAccessToken(@PathVariable String jti) {
+        // Sin el token no se conoce su 'exp': se recuerda durante la vida máxima de un access token
+        invalidationBus.publish(InvalidationEvent.tokenRevoked(jti, null));
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Tamaño de la lista de access tokens revocados")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/denylist")
+    public ResponseEntity<Map<String, Object>> denylistStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("entries", denylist.size());
+        response.put("filterBytes", denylist.filterBytes());
+        return ResponseEntity.ok(response);
+    }
+
 }
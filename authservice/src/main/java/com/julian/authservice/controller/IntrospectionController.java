@@ -0,0 +1,76 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.dto.IntrospectionResponse;
+import com.julian.authservice.service.TokenIntrospectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+// Introspección de tokens (RFC 7662) para consumidores internos.
+// auth.introspection.client-key es obligatoria y se exige en la cabecera X-Introspection-Key
+// para que el endpoint (bajo /auth/**, público) no sirva de oráculo de tokens a cualquiera:
+// sin ella la aplicación no arranca.
+@RestController
+@RequestMapping("/auth/introspect")
+public class IntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+    private final byte[] clientKey;
+
+    @Autowired
+    public IntrospectionController(TokenIntrospectionService introspectionService,
+                                   @Value("${auth.introspection.client-key:}") String clientKey) {
+        if (clientKey.isBlank()) {
+            throw new IllegalStateException("auth.introspection.client-key (AUTH_INTROSPECTION_KEY) es obligatoria");
+        }
+        this.introspectionService = introspectionService;
+        this.clientKey = clientKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Operation(summary = "Introspección de un token (formulario con 'token', RFC 7662)")
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestParam("token") String token,
+                                                            @RequestHeader(value = "X-Introspection-Key", required = false) String key) {
+        if (!authorized(key)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(introspectionService.introspect(token));
+    }
+
+    @Operation(summary = "Introspección por lotes: {\"tokens\": [...]} → resultados en el mismo orden")
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> introspectBatch(@RequestBody Map<String, List<String>> request,
+                                                               @RequestHeader(value = "X-Introspection-Key", required = false) String key) {
+        if (!authorized(key)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<String> tokens = request.get("tokens");
+        if (tokens == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Falta 'tokens'"));
+        }
+        try {
+            return ResponseEntity.ok(Map.of("results", introspectionService.introspectAll(tokens)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    private boolean authorized(String key) {
+        // Comparación en tiempo constante
+        return key != null && MessageDigest.isEqual(clientKey, key.getBytes(StandardCharsets.UTF_8));
+    }
+}
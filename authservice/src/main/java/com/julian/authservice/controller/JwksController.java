@@ -0,0 +1,115 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtKeySet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// JWKS con las claves públicas de verificación (RFC 7517) para que los gateways validen
+// los tokens ES256 localmente. El documento solo cambia al rotar claves: se serializa una
+// vez por JwtKeySet, con un ETag fuerte, y los clientes revalidan con If-None-Match (304).
+@RestController
+public class JwksController {
+
+    private final JwtKeyManager keyManager;
+    private final CacheControl cacheControl;
+
+    private volatile Jwks cached;
+
+    @Autowired
+    public JwksController(JwtKeyManager keyManager,
+                          @Value("${jwt.jwks.max-age:PT5M}") Duration maxAge) {
+        this.keyManager = keyManager;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Jwks jwks = current();
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(jwks.etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwks.etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(jwks.etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwks.body);
+    }
+
+    private Jwks current() {
+        JwtKeySet keys = keyManager.current();
+        Jwks jwks = cached;
+        if (jwks == null || jwks.source != keys) {
+            jwks = new Jwks(keys, render(keys.getPublicKeys()));
+            cached = jwks;
+        }
+        return jwks;
+    }
+
+    private static byte[] render(Map<String, PublicKey> publicKeys) {
+        StringJoiner entries = new StringJoiner(",", "{\"keys\":[", "]}");
+        publicKeys.forEach((kid, key) -> {
+            if (key instanceof ECPublicKey ec) {
+                entries.add("{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\""
+                        + ",\"kid\":\"" + kid + "\""
+                        + ",\"x\":\"" + coordinate(ec.getW().getAffineX()) + "\""
+                        + ",\"y\":\"" + coordinate(ec.getW().getAffineY()) + "\"}");
+            }
+        });
+        return entries.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Coordenada P-256 sin signo, 32 bytes exactos, en Base64url sin relleno
+    private static String coordinate(BigInteger value) {
+        byte[] raw = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(raw.length, 32);
+        System.arraycopy(raw, raw.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static final class Jwks {
+        private final JwtKeySet source;
+        private final byte[] body;
+        private final String etag;
+
+        private Jwks(JwtKeySet source, byte[] body) {
+            this.source = source;
+            this.body = body;
+            this.etag = "\"" + sha256(body) + "\"";
+        }
+
+        private static String sha256(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                return HexFormat.of().formatHex(digest, 0, 16);
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.dto.LoginResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// Escritor específico de LoginResponse (login y refresh): la estructura es fija y los tokens
+// son ASCII (Base64url y puntos), así que el JSON se copia byte a byte a un buffer reutilizado,
+// sin reflexión, sin JsonGenerator y sin mapas intermedios. Produce lo mismo que Jackson.
+// El pool es una cola acotada y no un ThreadLocal: con hilos virtuales cada petición
+// tendría un hilo nuevo y el buffer no se reutilizaría nunca.
+public class LoginResponseHttpMessageConverter extends AbstractHttpMessageConverter<LoginResponse> {
+
+    private static final byte[] ACCESS_PREFIX = ascii("{\"accessToken\":");
+    private static final byte[] REFRESH_PREFIX = ascii(",\"refreshToken\":");
+    private static final byte[] NULL = ascii("null");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int BUFFER_SIZE = 2048;
+
+    private final ArrayBlockingQueue<byte[]> pool;
+
+    public LoginResponseHttpMessageConverter(int poolSize) {
+        super(MediaType.APPLICATION_JSON);
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return LoginResponse.class == clazz;
+    }
+
+    // Solo escritura: las peticiones con LoginResponse en el cuerpo siguen yendo a Jackson
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected LoginResponse readInternal(@NonNull Class<? extends LoginResponse> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("LoginResponse solo se escribe", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(LoginResponse response, HttpOutputMessage outputMessage) throws IOException {
+        byte[] buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        try {
+            Sink sink = new Sink(buffer);
+            sink.write(ACCESS_PREFIX);
+            sink.writeString(response.getAccessToken());
+            sink.write(REFRESH_PREFIX);
+            sink.writeString(response.getRefreshToken());
+            sink.write('}');
+
+            // Longitud conocida antes de escribir: sin Transfer-Encoding chunked
+            outputMessage.getHeaders().setContentLength(sink.length);
+            OutputStream body = outputMessage.getBody();
+            body.write(sink.buffer, 0, sink.length);
+            buffer = sink.buffer; // puede haber crecido con tokens muy grandes
+        } finally {
+            if (buffer.length == BUFFER_SIZE) {
+                pool.offer(buffer); // con el pool lleno se descarta
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < value.length(); i++) {
+            bytes[i] = (byte) value.charAt(i);
+        }
+        return bytes;
+    }
+
+    private static final class Sink {
+        private byte[] buffer;
+        private int length;
+
+        private Sink(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void write(char c) {
+            ensure(1);
+            buffer[length++] = (byte) c;
+        }
+
+        // Camino rápido: ASCII imprimible sin comillas ni barras (siempre en un JWT).
+        // Cualquier otro carácter se escapa como \\uXXXX, que sigue siendo JSON válido.
+        void writeString(String value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            ensure(value.length() + 2);
+            buffer[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x7f && c != '"' && c != '\\') {
+                    buffer[length++] = (byte) c;
+                } else {
+                    ensure(6 + value.length() - i);
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'u';
+                    buffer[length++] = (byte) HEX[(c >> 12) & 0xf];
+                    buffer[length++] = (byte) HEX[(c >> 8) & 0xf];
+                    buffer[length++] = (byte) HEX[(c >> 4) & 0xf];
+                    buffer[length++] = (byte) HEX[c & 0xf];
+                }
+            }
+            buffer[length++] = '"';
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.julian.authservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class ChangePasswordRequest {
+
+    @Schema(description = "Contraseña actual", example = "MiPassword123!")
+    @NotBlank(message = "La contraseña actual es obligatoria")
+    private String currentPassword;
+
+    @Schema(description = "Nueva contraseña", example = "MiNuevaPassword456!")
+    @NotBlank(message = "La nueva contraseña es obligatoria")
+    @Size(min = 6, message = "La contraseña debe tener al menos 6 caracteres")
+    private String newPassword;
+
+    public ChangePasswordRequest() {}
+
+    public String getCurrentPassword() {
+        return currentPassword;
+    }
+
+    public void setCurrentPassword(String currentPassword) {
+        this.currentPassword = currentPassword;
+    }
+
+    public String getNewPassword() {
+        return newPassword;
+    }
+
+    public void setNewPassword(String newPassword) {
+        this.newPassword = newPassword;
+    }
+}
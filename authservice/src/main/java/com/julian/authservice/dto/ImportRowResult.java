@@ -0,0 +1,53 @@
+package com.julian.authservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Resultado por fila de la importación masiva (una línea NDJSON en la respuesta)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResult {
+    private final long line;
+    private final String status;
+    private final Long id;
+    private final String field;
+    private final String error;
+
+    private ImportRowResult(long line, String status, Long id, String field, String error) {
+        this.line = line;
+        this.status = status;
+        this.id = id;
+        this.field = field;
+        this.error = error;
+    }
+
+    public static ImportRowResult created(long line, Long id) {
+        return new ImportRowResult(line, "created", id, null, null);
+    }
+
+    public static ImportRowResult conflict(long line, String field, String error) {
+        return new ImportRowResult(line, "conflict", null, field, error);
+    }
+
+    public static ImportRowResult invalid(long line, String error) {
+        return new ImportRowResult(line, "invalid", null, null, error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
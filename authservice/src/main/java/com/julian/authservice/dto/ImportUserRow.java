@@ -0,0 +1,53 @@
+package com.julian.authservice.dto;
+
+// Una fila de la importación masiva (NDJSON o CSV).
+// Se acepta 'password' en claro o 'passwordHash' ya calculado por el sistema de origen.
+public class ImportUserRow {
+    private String username;
+    private String email;
+    private String password;
+    private String passwordHash;
+    private String role;
+
+    public ImportUserRow() {}
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,64 @@
+package com.julian.authservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Respuesta de introspección al estilo RFC 7662: si el token no está activo solo va "active": false
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResponse {
+
+    private static final IntrospectionResponse INACTIVE = new IntrospectionResponse(false, null, null, null, null, null);
+
+    private final boolean active;
+    private final String sub;
+    private final String role;
+    private final String jti;
+    private final Long iat;
+    private final Long exp;
+
+    private IntrospectionResponse(boolean active, String sub, String role, String jti, Long iat, Long exp) {
+        this.active = active;
+        this.sub = sub;
+        this.role = role;
+        this.jti = jti;
+        this.iat = iat;
+        this.exp = exp;
+    }
+
+    public static IntrospectionResponse active(String sub, String role, String jti, Long iat, Long exp) {
+        return new IntrospectionResponse(true, sub, role, jti, iat, exp);
+    }
+
+    public static IntrospectionResponse inactive() {
+        return INACTIVE;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public String getSub() {
+        return sub;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public Long getIat() {
+        return iat;
+    }
+
+    public Long getExp() {
+        return exp;
+    }
+
+    @JsonProperty("token_type")
+    public String getTokenType() {
+        return active ? "access_token" : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.julian.authservice.dto;
+
+import java.time.Instant;
+
+// Sesión activa tal como la ve su usuario en /auth/me/sessions
+public class SessionDTO {
+    private final String id;
+    private final String userAgent;
+    private final String ipAddress;
+    private final Instant createdAt;
+    private final Instant lastUsedAt;
+    private final boolean current;
+
+    public SessionDTO(String id, String userAgent, String ipAddress, Instant createdAt, Instant lastUsedAt, boolean current) {
+        this.id = id;
+        this.userAgent = userAgent;
+        this.ipAddress = ipAddress;
+        this.createdAt = createdAt;
+        this.lastUsedAt = lastUsedAt;
+        this.current = current;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public boolean isCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,149 @@
+package com.julian.authservice.metrics;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Métricas de los caminos calientes de autenticación.
+// Todos los timers/contadores se registran al arrancar (uno por valor de tag) y se guardan
+// en arrays indexados por el ordinal del enum: registrar una medida es un System.nanoTime()
+// y un record(), sin buscar el meter por nombre ni crear tags por petición.
+@Component
+public class AuthMetrics {
+
+    public enum LoginOutcome { SUCCESS, UNKNOWN_USER, BAD_PASSWORD, ERROR }
+
+    public enum RegisterOutcome { SUCCESS, CONFLICT, ERROR }
+
+    public enum RefreshOutcome { SUCCESS, REUSE, EXPIRED, INVALID }
+
+    public enum FilterOutcome { AUTHENTICATED, ANONYMOUS, INVALID, REVOKED }
+
+    public enum TokenType { ACCESS, REFRESH }
+
+    public enum HashOperation { ENCODE, MATCHES }
+
+    public enum ParseFailure { EXPIRED, SIGNATURE, MALFORMED, UNSUPPORTED, OTHER }
+
+    private final Timer[] login;
+    private final Timer[] register;
+    private final Timer[] refresh;
+    private final Timer[] filter;
+    private final Timer[] sign;
+    private final Timer[] hash;
+    private final Timer parse;
+    private final Counter[] parseFailures;
+
+    @Autowired
+    public AuthMetrics(MeterRegistry registry) {
+        this.login = timers(registry, "auth.login", "Duración de /auth/login (incluye el hash)", LoginOutcome.class);
+        this.register = timers(registry, "auth.register", "Duración del registro de usuarios", RegisterOutcome.class);
+        this.refresh = timers(registry, "auth.refresh", "Duración de la rotación de refresh tokens", RefreshOutcome.class);
+        this.filter = timers(registry, "auth.filter", "Duración de JwtAuthenticationFilter", FilterOutcome.class);
+        this.sign = timers(registry, "auth.jwt.sign", "Duración de la firma de tokens", "type", TokenType.class);
+        this.hash = timers(registry, "auth.password.hash", "Duración del hash de contraseñas", "operation", HashOperation.class);
+        this.parse = Timer.builder("auth.jwt.parse")
+                .description("Duración del parseo y verificación de tokens válidos")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        ParseFailure[] causes = ParseFailure.values();
+        this.parseFailures = new Counter[causes.length];
+        for (ParseFailure cause : causes) {
+            parseFailures[cause.ordinal()] = Counter.builder("auth.jwt.parse.failures")
+                    .description("Tokens rechazados al parsear, por causa")
+                    .tag("cause", tagValue(cause))
+                    .register(registry);
+        }
+    }
+
+    // Sin registro real (tests, benchmarks, construcción manual)
+    public static AuthMetrics noop() {
+        return new AuthMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordLogin(LoginOutcome outcome, long startNanos) {
+        record(login[outcome.ordinal()], startNanos);
+    }
+
+    public void recordRegister(RegisterOutcome outcome, long startNanos) {
+        record(register[outcome.ordinal()], startNanos);
+    }
+
+    public void recordRefresh(RefreshOutcome outcome, long startNanos) {
+        record(refresh[outcome.ordinal()], startNanos);
+    }
+
+    public void recordFilter(FilterOutcome outcome, long startNanos) {
+        record(filter[outcome.ordinal()], startNanos);
+    }
+
+    public void recordSign(TokenType type, long startNanos) {
+        record(sign[type.ordinal()], startNanos);
+    }
+
+    public void recordHash(HashOperation operation, long startNanos) {
+        record(hash[operation.ordinal()], startNanos);
+    }
+
+    public void recordParse(long startNanos) {
+        record(parse, startNanos);
+    }
+
+    public void parseFailed(Exception ex) {
+        parseFailures[classify(ex).ordinal()].increment();
+    }
+
+    static ParseFailure classify(Exception ex) {
+        if (ex instanceof ExpiredJwtException) {
+            return ParseFailure.EXPIRED;
+        }
+        if (ex instanceof SecurityException) { // firma inválida o kid desconocido
+            return ParseFailure.SIGNATURE;
+        }
+        if (ex instanceof MalformedJwtException || ex instanceof IllegalArgumentException) {
+            return ParseFailure.MALFORMED; // incluye token vacío o con Base64 inválido
+        }
+        if (ex instanceof UnsupportedJwtException) {
+            return ParseFailure.UNSUPPORTED;
+        }
+        return ParseFailure.OTHER;
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static <E extends Enum<E>> Timer[] timers(MeterRegistry registry, String name, String description,
+                                                      Class<E> outcomes) {
+        return timers(registry, name, description, "outcome", outcomes);
+    }
+
+    private static <E extends Enum<E>> Timer[] timers(MeterRegistry registry, String name, String description,
+                                                      String tag, Class<E> values) {
+        E[] constants = values.getEnumConstants();
+        Timer[] timers = new Timer[constants.length];
+        for (E constant : constants) {
+            timers[constant.ordinal()] = Timer.builder(name)
+                    .description(description)
+                    .tag(tag, tagValue(constant))
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
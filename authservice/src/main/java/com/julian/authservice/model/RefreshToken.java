@@ -0,0 +1,108 @@
+package com.julian.authservice.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Refresh token emitido. El id es el 'jti' del JWT; todos los tokens obtenidos
+// por rotación desde un mismo login comparten familyId.
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_email", columnList = "email"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private String email;
+
+    // varchar y no el ENUM nativo de H2: el mismo esquema sirve en PostgreSQL (ver db/migration)
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Role role;
+
+    @Column(name = "issued_at", nullable = false)
+    private Instant issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Momento en que se rotó; un segundo uso indica robo del token
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    // El id se asigna en la aplicación: sin esto save() haría un SELECT previo (merge)
+    @Transient
+    private boolean isNew = true;
+
+    // Constructor vacío necesario para JPA
+    public RefreshToken() {}
+
+    public RefreshToken(String id, String familyId, String email, Role role, Instant issuedAt, Instant expiresAt) {
+        this.id = id;
+        this.familyId = familyId;
+        this.email = email;
+        this.role = role;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getUsedAt() {
+        return usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+}
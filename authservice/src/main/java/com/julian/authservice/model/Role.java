@@ -1,6 +1,26 @@
 package com.julian.authservice.model;
 
 public enum Role {
-    USER,
-    ADMIN
-}
\ No newline at end of file
+    USER(0),
+    ADMIN(1);
+
+    // Código numérico estable para el formato compacto de token (claim 'r'); no reutilizar códigos
+    private final int code;
+
+    Role(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static Role fromCode(int code) {
+        for (Role role : values()) {
+            if (role.code == code) {
+                return role;
+            }
+        }
+        throw new IllegalArgumentException("Código de rol desconocido: " + code);
+    }
+}
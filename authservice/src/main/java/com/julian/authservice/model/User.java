@@ -1,23 +1,31 @@
 package com.julian.authservice.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 import com.julian.authservice.dto.LoginResponse;
 
 @Entity(name = "users") // usa 'users' en plural
-@Table(name = "users")  //  indica el nombre de la tabla
+@Table(name = "users",  //  indica el nombre de la tabla
+        uniqueConstraints = { // nombres fijos para traducir duplicados a 409 por campo
+                @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+                @UniqueConstraint(name = "uk_users_username", columnNames = "username")
+        })
 public class User {
 
+    // Secuencia con bloques de 50 ids: permite inserts por lotes JDBC (IDENTITY los desactiva)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -25,10 +33,17 @@ public class User {
 
     private LocalDateTime createdAt;
 
+    // varchar y no el ENUM nativo de H2: el mismo esquema sirve en PostgreSQL (ver db/migration)
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
     private Role role;
 
+    // Bloqueo optimista: cada UPDATE lo incrementa. También es el ETag de /auth/me
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Constructor vacío necesario para JPA
     public User() {}
 
@@ -79,6 +94,15 @@ public class User {
         this.createdAt = createdAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    // Solo para reintentar un insert fallido (null = entidad nueva para Spring Data)
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public void setRole(Role role) {
         this.role = role;
     }
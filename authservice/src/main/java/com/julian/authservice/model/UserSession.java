@@ -0,0 +1,97 @@
+package com.julian.authservice.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Sesión de un usuario: un login y todos los refresh tokens rotados desde él.
+// El id coincide con el familyId de refresh_tokens y con el claim 'sid' de los access tokens.
+@Entity
+@Table(name = "user_sessions", indexes = {
+        @Index(name = "idx_user_sessions_user", columnList = "user_id, last_used_at")
+})
+public class UserSession implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "user_agent")
+    private String userAgent;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_used_at", nullable = false)
+    private Instant lastUsedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    // El id se asigna en la aplicación: sin esto saveAll() haría un SELECT previo (merge)
+    @Transient
+    private boolean isNew = true;
+
+    // Constructor vacío necesario para JPA
+    public UserSession() {}
+
+    public UserSession(String id, Long userId, String userAgent, String ipAddress, Instant createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userAgent = userAgent;
+        this.ipAddress = ipAddress;
+        this.createdAt = createdAt;
+        this.lastUsedAt = createdAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(Instant lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+}
@@ -0,0 +1,41 @@
+package com.julian.authservice.repository;
+
+import com.julian.authservice.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Marca el token como usado solo si nadie lo usó antes (1 = rotación válida, 0 = reutilización)
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null and t.revoked = false")
+    int markUsed(@Param("id") String id, @Param("now") Instant now);
+
+    @Query("select t.id from RefreshToken t where t.familyId = :familyId")
+    List<String> findIdsByFamilyId(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Query("select t.id from RefreshToken t where t.email = :email and t.revoked = false")
+    List<String> findActiveIdsByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.email = :email and t.revoked = false")
+    int revokeAllByEmail(@Param("email") String email);
+
+    // Purga por lotes usando el índice de expires_at
+    @Query("select t.id from RefreshToken t where t.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
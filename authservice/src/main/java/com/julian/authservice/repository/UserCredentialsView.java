@@ -0,0 +1,36 @@
+package com.julian.authservice.repository;
+
+import com.julian.authservice.model.Role;
+
+// Columnas que necesitan el login y UserDetails. Se construye en la propia consulta
+// (select new ...): no hay entidad gestionada, ni snapshot para dirty checking, ni proxy.
+public final class UserCredentialsView {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final Role role;
+
+    public UserCredentialsView(Long id, String email, String password, Role role) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,9 @@
+package com.julian.authservice.repository;
+
+// Proyección con las dos columnas únicas de User (no carga la entidad completa)
+public interface UserIdentityView {
+
+    String getEmail();
+
+    String getUsername();
+}
@@ -0,0 +1,31 @@
+package com.julian.authservice.repository;
+
+import com.julian.authservice.dto.UserDTO;
+
+// Perfil de /auth/me con la versión de la fila (select new ...): id + versión forman el ETag
+public final class UserProfileView {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final Long version;
+
+    public UserProfileView(Long id, String username, String email, Long version) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public UserDTO toDto() {
+        return new UserDTO(id, username, email);
+    }
+}
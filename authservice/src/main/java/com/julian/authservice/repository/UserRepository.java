@@ -1,8 +1,15 @@
 package com.julian.authservice.repository;
 
+import com.julian.authservice.dto.UserDTO;
 import com.julian.authservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -11,7 +18,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    // Login y CustomUserDetailsService: cuatro columnas en una transacción de solo lectura
+    // (Hibernate no toma snapshot ni hace flush); el hash no entra en el contexto de persistencia
+    @Transactional(readOnly = true)
+    @Query("select new com.julian.authservice.repository.UserCredentialsView(u.id, u.email, u.password, u.role) "
+            + "from users u where u.email = :email")
+    Optional<UserCredentialsView> findCredentialsByEmail(@Param("email") String email);
+
+    // GET /auth/me: directamente el DTO de respuesta
+    @Transactional(readOnly = true)
+    @Query("select new com.julian.authservice.dto.UserDTO(u.id, u.username, u.email) from users u where u.email = :email")
+    Optional<UserDTO> findProfileByEmail(@Param("email") String email);
+
+    // Cuerpo cacheado de /auth/me (ProfileResponseCache): el DTO más la versión para el ETag
+    @Transactional(readOnly = true)
+    @Query("select new com.julian.authservice.repository.UserProfileView(u.id, u.username, u.email, u.version) "
+            + "from users u where u.email = :email")
+    Optional<UserProfileView> findProfileViewByEmail(@Param("email") String email);
+
+    // Re-hash en el login sin cargar la entidad; la versión sube igual que con save()
+    @Transactional
+    @Modifying
+    @Query("update users u set u.password = :password, u.version = u.version + 1 where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
+
+    // Comprueba email y username en un solo round-trip
+    List<UserIdentityView> findByEmailOrUsername(String email, String username);
+
+    // Duplicados de un lote completo de la importación masiva. Es una consulta por columna:
+    // con OR sobre dos listas IN el motor no usa los índices únicos y recorre la tabla.
+    List<UserIdentityView> findByEmailIn(Collection<String> emails);
+
+    List<UserIdentityView> findByUsernameIn(Collection<String> usernames);
 }
@@ -0,0 +1,49 @@
+package com.julian.authservice.repository;
+
+import com.julian.authservice.model.UserSession;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+
+    // Usa idx_user_sessions_user (user_id, last_used_at)
+    Page<UserSession> findByUserIdAndRevokedFalseOrderByLastUsedAtDesc(Long userId, Pageable pageable);
+
+    // Un UPDATE para todas las sesiones usadas en el intervalo de flush
+    @Transactional
+    @Modifying
+    @Query("update UserSession s set s.lastUsedAt = :now where s.id in :ids and s.revoked = false")
+    int touch(@Param("ids") Collection<String> ids, @Param("now") Instant now);
+
+    // Solo revoca si la sesión pertenece al usuario (0 = no existe o es de otro)
+    @Transactional
+    @Modifying
+    @Query("update UserSession s set s.revoked = true where s.id = :id and s.userId = :userId and s.revoked = false")
+    int revoke(@Param("id") String id, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("update UserSession s set s.revoked = true where s.id = :id and s.revoked = false")
+    int revoke(@Param("id") String id);
+
+    @Query("select s.id from UserSession s where s.userId = :userId and s.revoked = false")
+    List<String> findActiveIdsByUserId(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("update UserSession s set s.revoked = true where s.userId = :userId and s.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    // Purga: revocadas o sin uso desde antes de que caducara su último refresh token
+    @Query("select s.id from UserSession s where s.revoked = true or s.lastUsedAt < :before")
+    List<String> findStaleIds(@Param("before") Instant before, Pageable pageable);
+}
@@ -0,0 +1,125 @@
+package com.julian.authservice.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lista de access tokens revocados por 'jti'.
+// Dos generaciones de filtros de Bloom responden "no revocado" sin tocar el mapa exacto
+// (el caso normal); solo un positivo consulta el mapa jti -> exp, que descarta falsos positivos.
+// Cada generación dura ACCESS_TOKEN_MILLIS: en cada rotación el mapa se barre por 'exp' y el
+// filtro nuevo se reconstruye con los jti vigentes, así que las entradas envejecen solas.
+@Component
+public class AccessTokenDenylist {
+
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long generationMillis;
+    private final ConcurrentHashMap<String, Long> exact = new ConcurrentHashMap<>();
+
+    private volatile Generations generations;
+
+    @Autowired
+    public AccessTokenDenylist(@Value("${auth.denylist.expected-insertions:100000}") long expectedInsertions,
+                               @Value("${auth.denylist.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(expectedInsertions, falsePositiveRate, JwtUtil.ACCESS_TOKEN_MILLIS);
+    }
+
+    AccessTokenDenylist(long expectedInsertions, double falsePositiveRate, long generationMillis) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.generationMillis = generationMillis;
+        this.generations = new Generations(newFilter(), newFilter(), System.currentTimeMillis());
+    }
+
+    public void revoke(String tokenId, Instant expiration) {
+        if (tokenId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = expiration != null ? expiration.toEpochMilli() : now + generationMillis;
+        if (expiresAt <= now) {
+            return; // ya no sirve: no hace falta recordarlo
+        }
+        exact.put(tokenId, expiresAt);
+        current(now).current.put(tokenId);
+    }
+
+    public void revoke(ValidatedToken token) {
+        revoke(token.getId(), token.getExpiration());
+    }
+
+    // Por 'jti' o por sesión: cerrar una sesión añade su 'sid' y caen todos sus access tokens
+    public boolean isRevoked(ValidatedToken token) {
+        return isRevoked(token.getId()) || isRevoked(token.getSessionId());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Generations gens = current(System.currentTimeMillis());
+        if (!gens.current.mightContain(tokenId) && !gens.previous.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = exact.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public int size() {
+        return exact.size();
+    }
+
+    public long filterBytes() {
+        Generations gens = generations;
+        return gens.current.sizeInBytes() + gens.previous.sizeInBytes();
+    }
+
+    private Generations current(long now) {
+        Generations gens = generations;
+        if (now - gens.startedAt < generationMillis) {
+            return gens;
+        }
+        return rotate(now);
+    }
+
+    // Rara vez (una vez por generación): la nueva generación arranca vacía y la actual pasa a previa
+    private synchronized Generations rotate(long now) {
+        Generations gens = generations;
+        if (now - gens.startedAt < generationMillis) {
+            return gens;
+        }
+        // Si pasaron dos generaciones sin tráfico, la previa tampoco contiene nada vigente
+        BloomFilter previous = now - gens.startedAt < 2 * generationMillis
+                ? gens.current
+                : newFilter();
+        exact.values().removeIf(expiresAt -> expiresAt <= now);
+
+        // Los jti que siguen vigentes (tokens con exp más allá de una generación) pasan al filtro nuevo
+        BloomFilter next = newFilter();
+        exact.keySet().forEach(next::put);
+
+        gens = new Generations(next, previous, now);
+        generations = gens;
+        return gens;
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    private static final class Generations {
+        private final BloomFilter current;
+        private final BloomFilter previous;
+        private final long startedAt;
+
+        private Generations(BloomFilter current, BloomFilter previous, long startedAt) {
+            this.current = current;
+            this.previous = previous;
+            this.startedAt = startedAt;
+        }
+    }
+}
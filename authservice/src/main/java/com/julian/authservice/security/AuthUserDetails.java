@@ -0,0 +1,68 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// UserDetails inmutable: no implementa CredentialsContainer, así que Spring no
+// borra el hash y la misma instancia se puede compartir entre peticiones.
+// Las listas de authorities se crean una vez por rol.
+public final class AuthUserDetails implements UserDetails {
+
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    private final String email;
+    private final String password;
+    private final Role role;
+
+    public AuthUserDetails(String email, String password, Role role) {
+        this.email = email;
+        this.password = password;
+        this.role = role;
+    }
+
+    // Principal construido solo con los claims verificados (sin hash de contraseña)
+    public static AuthUserDetails fromClaims(String email, Role role) {
+        return new AuthUserDetails(email, null, role);
+    }
+
+    public static List<GrantedAuthority> authoritiesFor(Role role) {
+        return AUTHORITIES.get(role);
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES.get(role);
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -1,23 +1,37 @@
 package com.julian.authservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserCredentialsView;
 import com.julian.authservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Caché por email: tamaño máximo, TTL y desalojo W-TinyLFU (Caffeine).
+    // Guarda AuthUserDetails inmutables, así que se comparten sin copiar.
+    private final Cache<String, AuthUserDetails> cache;
+
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${auth.user-cache.ttl:PT5M}") Duration ttl) {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
     }
 
     /*@Override
@@ -36,13 +50,27 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        // Los usuarios inexistentes no se cachean: la excepción sale del loader
+        return cache.get(email, this::loadFromDatabase);
+    }
+
+    // Se invoca cuando cambian la contraseña o el rol del usuario
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private AuthUserDetails loadFromDatabase(String email) {
+        UserCredentialsView user = userRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-        );
+        return new AuthUserDetails(user.getEmail(), user.getPassword(), user.getRole());
     }
 }
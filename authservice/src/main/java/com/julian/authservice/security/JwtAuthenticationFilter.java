@@ -1,11 +1,15 @@
 package com.julian.authservice.security;
 
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,13 +22,31 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Atributo de la petición con el 'sid' del token autenticado (marca la sesión actual en /auth/me/sessions)
+    public static final String SESSION_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".sessionId";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final UserRevocationIndex revocationIndex;
+    private final AccessTokenDenylist denylist;
+    private final AuthMetrics metrics;
+
+    // jwt.auth-mode=claims: confía en el rol firmado del token y no consulta la base de datos
+    private final boolean trustClaims;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   CustomUserDetailsService userDetailsService,
+                                   UserRevocationIndex revocationIndex,
+                                   AccessTokenDenylist denylist,
+                                   AuthMetrics metrics,
+                                   @Value("${jwt.auth-mode:database}") String authMode) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revocationIndex = revocationIndex;
+        this.denylist = denylist;
+        this.metrics = metrics;
+        this.trustClaims = "claims".equalsIgnoreCase(authMode);
     }
 
     @Override
@@ -33,34 +55,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
+        AuthMetrics.FilterOutcome outcome = AuthMetrics.FilterOutcome.ANONYMOUS;
+
         // Obtener el token del header Authorization
         final String authHeader = request.getHeader("Authorization");
-        String jwt = null;
-        String email = null;
+        ValidatedToken token = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            email = jwtUtil.extractUsername(jwt); // subject = email
+            try {
+                // Un único parseo + verificación de firma por petición
+                token = jwtUtil.validateToken(authHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException ex) {
+                // Token inválido o expirado: la petición sigue como anónima
+                token = null;
+                outcome = AuthMetrics.FilterOutcome.INVALID;
+            }
         }
 
-        // Si hay email y no hay usuario autenticado aún
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        // Si hay token válido, no revocado (por jti ni por usuario), y no hay usuario autenticado aún
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Por jti, por sesión ('sid') o por usuario: todo en memoria
+            if (denylist.isRevoked(token) || revocationIndex.isRevoked(token.getSubject(), token.getIssuedAt())) {
+                outcome = AuthMetrics.FilterOutcome.REVOKED;
+            } else {
+                UserDetails userDetails = resolveUser(token);
 
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
+                if (userDetails != null && jwtUtil.isTokenValid(token, userDetails)) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()
+                    );
 
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
+                    authToken.setDetails(
+                            new WebAuthenticationDetailsSource().buildDetails(request)
+                    );
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    if (token.getSessionId() != null) {
+                        request.setAttribute(SESSION_ATTRIBUTE, token.getSessionId());
+                    }
+                    outcome = AuthMetrics.FilterOutcome.AUTHENTICATED;
+                } else {
+                    outcome = AuthMetrics.FilterOutcome.INVALID;
+                }
             }
         }
 
+        // Solo el trabajo del filtro; el resto de la cadena no entra en la medida
+        metrics.recordFilter(outcome, start);
+
         // Continuar con el siguiente filtro
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUser(ValidatedToken token) {
+        // Access tokens sin rol (generateToken) siguen el camino con base de datos;
+        // los refresh tokens ya los rechaza validateToken
+        if (trustClaims && token.getRole() != null) {
+            try {
+                return AuthUserDetails.fromClaims(token.getSubject(), Role.valueOf(token.getRole()));
+            } catch (IllegalArgumentException ex) {
+                return null; // rol desconocido: no se autentica
+            }
+        }
+        return userDetailsService.loadUserByUsername(token.getSubject()); // subject = email
+    }
 }
@@ -0,0 +1,140 @@
+package com.julian.authservice.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Gestiona las claves JWT: se construyen una sola vez y se cambian de forma
+// atómica al rotar, sin reiniciar el servicio.
+// jwt.algorithm=HS256 firma con jwt.secret; ES256 firma con una clave EC P-256 y los
+// demás servicios verifican con la pública de /.well-known/jwks.json, sin el secreto.
+@Component
+public class JwtKeyManager {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    private final AtomicReference<JwtKeySet> keySet;
+
+    // jwt.previous-keys: claves HMAC que solo verifican, formato "kid=secreto,kid2=secreto2"
+    // jwt.ec.private-key / jwt.ec.public-key: PKCS#8 / X.509 en Base64 (con o sin cabeceras PEM)
+    // jwt.ec.allow-ephemeral: sin claves EC se genera un par al arrancar; solo en dev (y tests)
+    @Autowired
+    public JwtKeyManager(@Value("${jwt.secret}") String secret,
+                         @Value("${jwt.kid:k1}") String kid,
+                         @Value("${jwt.previous-keys:}") String previousKeys,
+                         @Value("${jwt.algorithm:HS256}") String algorithm,
+                         @Value("${jwt.ec.private-key:}") String ecPrivateKey,
+                         @Value("${jwt.ec.public-key:}") String ecPublicKey,
+                         @Value("${jwt.ec.allow-ephemeral:false}") boolean allowEphemeral) {
+        Map<String, Key> keys = new LinkedHashMap<>();
+        for (String entry : previousKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int sep = entry.indexOf('=');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Formato inválido en jwt.previous-keys: " + entry);
+            }
+            keys.put(entry.substring(0, sep).trim(), hmacKey(entry.substring(sep + 1).trim()));
+        }
+
+        switch (algorithm.toUpperCase()) {
+            case "HS256" -> {
+                keys.put(kid, hmacKey(secret));
+                this.keySet = new AtomicReference<>(new JwtKeySet(kid, kid, keys));
+            }
+            case "ES256" -> {
+                KeyPair pair = ecKeyPair(ecPrivateKey, ecPublicKey, allowEphemeral);
+                keys.put(kid, pair.getPublic());
+                this.keySet = new AtomicReference<>(
+                        new JwtKeySet(kid, kid, keys, pair.getPrivate(), SignatureAlgorithm.ES256));
+            }
+            default -> throw new IllegalArgumentException("jwt.algorithm no soportado: " + algorithm);
+        }
+    }
+
+    public JwtKeyManager(String secret, String kid, String previousKeys, String algorithm,
+                         String ecPrivateKey, String ecPublicKey) {
+        this(secret, kid, previousKeys, algorithm, ecPrivateKey, ecPublicKey, true);
+    }
+
+    public JwtKeyManager(String secret, String kid, String previousKeys) {
+        this(secret, kid, previousKeys, "HS256", "", "");
+    }
+
+    public JwtKeyManager(String secret, String kid) {
+        this(secret, kid, "");
+    }
+
+    public JwtKeySet current() {
+        return keySet.get();
+    }
+
+    // Activa una nueva clave de firma; las anteriores siguen validando tokens vivos
+    public void rotate(String kid, String secret) {
+        Key key = hmacKey(secret);
+        keySet.updateAndGet(current -> current.withActive(kid, key));
+    }
+
+    // Igual con un par EC: se firma con la privada y se publica la pública
+    public void rotate(String kid, KeyPair keyPair) {
+        if (!(keyPair.getPrivate() instanceof ECPrivateKey) || !(keyPair.getPublic() instanceof ECPublicKey)) {
+            throw new IllegalArgumentException("Se esperaba un par de claves EC (P-256)");
+        }
+        keySet.updateAndGet(current ->
+                current.withActive(kid, keyPair.getPrivate(), keyPair.getPublic(), SignatureAlgorithm.ES256));
+    }
+
+    // Retira una clave de verificación (por ejemplo, cuando ya expiraron sus tokens)
+    public void retire(String kid) {
+        keySet.updateAndGet(current -> current.without(kid));
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static KeyPair ecKeyPair(String privateKey, String publicKey, boolean allowEphemeral) {
+        if (privateKey.isBlank() || publicKey.isBlank()) {
+            // Con varias réplicas cada una firmaría con su par y al reiniciar caducarían todos los tokens
+            if (!allowEphemeral) {
+                throw new IllegalStateException("jwt.algorithm=ES256 requiere jwt.ec.private-key y jwt.ec.public-key");
+            }
+            log.warn("jwt.algorithm=ES256 sin jwt.ec.private-key/jwt.ec.public-key: se genera un par efímero");
+            return Keys.keyPairFor(SignatureAlgorithm.ES256);
+        }
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            PrivateKey priv = factory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(privateKey)));
+            PublicKey pub = factory.generatePublic(new X509EncodedKeySpec(decodePem(publicKey)));
+            return new KeyPair(pub, priv);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Claves EC inválidas en jwt.ec.*", ex);
+        }
+    }
+
+    private static byte[] decodePem(String value) {
+        String base64 = value.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
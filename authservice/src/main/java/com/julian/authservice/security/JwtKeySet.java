@@ -0,0 +1,128 @@
+package com.julian.authservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Instantánea inmutable del anillo de claves: clave activa para firmar (y su algoritmo),
+// claves aceptadas para verificar (por 'kid') y un parser ya construido.
+// Con HS256 la clave de firma y la de verificación son la misma; con ES256 se firma con
+// la privada y en el anillo solo está la pública (la que se publica en el JWKS).
+// JwtKeyManager la reemplaza entera al rotar, nunca se modifica en sitio.
+public final class JwtKeySet {
+
+    private final String activeKid;
+    private final String legacyKid;
+    private final Map<String, Key> keys;
+    private final Key signingKey;
+    private final SignatureAlgorithm algorithm;
+    private final JwtParser parser;
+
+    JwtKeySet(String activeKid, String legacyKid, Map<String, Key> keys) {
+        this(activeKid, legacyKid, keys, keys.get(activeKid), SignatureAlgorithm.HS256);
+    }
+
+    JwtKeySet(String activeKid, String legacyKid, Map<String, Key> keys, Key signingKey, SignatureAlgorithm algorithm) {
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalArgumentException("La clave activa no está en el anillo: " + activeKid);
+        }
+        this.activeKid = activeKid;
+        this.legacyKid = legacyKid;
+        this.keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+        this.signingKey = signingKey;
+        this.algorithm = algorithm;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KidResolver())
+                .build(); // el parser de jjwt es thread-safe una vez construido
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    // Clave de verificación del 'kid' activo
+    public Key getActiveKey() {
+        return keys.get(activeKid);
+    }
+
+    // Clave con la que se firma: igual a getActiveKey() con HS256, la privada con ES256
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Map<String, Key> getKeys() {
+        return keys;
+    }
+
+    // Solo las claves públicas (ES256) se pueden publicar; los secretos HMAC nunca
+    public Map<String, PublicKey> getPublicKeys() {
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        keys.forEach((kid, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                publicKeys.put(kid, publicKey);
+            }
+        });
+        return publicKeys;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    // Nueva instantánea con 'kid' como clave activa; las demás siguen verificando
+    JwtKeySet withActive(String kid, Key key) {
+        return withActive(kid, key, key, SignatureAlgorithm.HS256);
+    }
+
+    JwtKeySet withActive(String kid, Key signingKey, Key verificationKey, SignatureAlgorithm algorithm) {
+        Map<String, Key> next = new LinkedHashMap<>(keys);
+        next.put(kid, verificationKey);
+        return new JwtKeySet(kid, legacyKid, next, signingKey, algorithm);
+    }
+
+    JwtKeySet without(String kid) {
+        if (kid.equals(activeKid)) {
+            throw new IllegalArgumentException("No se puede retirar la clave activa: " + kid);
+        }
+        Map<String, Key> next = new LinkedHashMap<>(keys);
+        next.remove(kid);
+        return new JwtKeySet(activeKid, legacyKid, next, signingKey, algorithm);
+    }
+
+    private Key resolve(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        // Tokens emitidos antes de introducir 'kid' se firmaron con la clave original
+        Key key = keys.get(kid != null ? kid : legacyKid);
+        if (key == null) {
+            throw new SignatureException("Clave de firma desconocida: " + kid);
+        }
+        return key;
+    }
+
+    private final class KidResolver implements SigningKeyResolver {
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return resolve(header);
+        }
+
+        @Override
+        public Key resolveSigningKey(JwsHeader header, String plaintext) {
+            return resolve(header);
+        }
+    }
+}
@@ -1,45 +1,141 @@
 package com.julian.authservice.security;
 
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
 import com.julian.authservice.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    // Clave secreta para firmar el token
-    // private final Key secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Claves de firma y parser precalculados (rotables en caliente)
+    private final JwtKeyManager keyManager;
 
     // Duración del token (ejemplo: 1 hora)
     private final long expirationMillis = 3600000;
 
+    // Duración de los access tokens: 15 minutos
+    public static final long ACCESS_TOKEN_MILLIS = 1000L * 60 * 15;
+
+    // Duración de los refresh tokens: 7 días
+    public static final long REFRESH_TOKEN_MILLIS = 1000L * 60 * 60 * 24 * 7;
+
+    // Formato compacto de access token: rol numérico en 'r', jti corto y sin 'iat' (= exp - duración)
+    private static final String COMPACT_ROLE_CLAIM = "r";
+
+    // Sesión (login) a la que pertenece el access token; permite revocarla sin consultar la base de datos
+    public static final String SESSION_CLAIM = "sid";
+
+    // Tipo de token: un refresh token no sirve como Bearer ni un access token para rotar
+    public static final String TYPE_CLAIM = "typ";
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder JTI_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final AuthMetrics metrics;
+
+    // jwt.format=compact emite el formato corto; al validar se aceptan ambos siempre
+    private final boolean compact;
+
+    public JwtUtil(JwtKeyManager keyManager) {
+        this(keyManager, AuthMetrics.noop());
+    }
+
+    public JwtUtil(JwtKeyManager keyManager, AuthMetrics metrics) {
+        this(keyManager, metrics, "standard");
+    }
+
+    @Autowired
+    public JwtUtil(JwtKeyManager keyManager, AuthMetrics metrics, @Value("${jwt.format:standard}") String format) {
+        this.keyManager = keyManager;
+        this.metrics = metrics;
+        this.compact = "compact".equalsIgnoreCase(format);
+    }
+
     // Generar token
     public String generateToken(String subject) {
-        Key secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        JwtKeySet keys = keyManager.current();
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationMillis);
 
         return Jwts.builder()
+                .setHeaderParam("kid", keys.getActiveKid())
                 .setSubject(subject)             // por ejemplo: email o id del usuario
+                .claim(TYPE_CLAIM, ACCESS_TYPE)  // sin rol: el filtro lo carga de la base de datos
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(secretKey, SignatureAlgorithm.HS256)            // firma usando la clave secreta
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())            // firma usando la clave activa
                 .compact();
     }
 
-    // [Más adelante agregaremos métodos como validateToken y getSubjectFromToken]
+    //  Parsea y verifica la firma una sola vez; lanza JwtException si no es válido, expiró
+    //  o no es un access token
+    public ValidatedToken validateToken(String token) {
+        return validate(token, ACCESS_TYPE);
+    }
+
+    //  Igual, pero solo acepta refresh tokens (RefreshTokenService)
+    public ValidatedToken validateRefreshToken(String token) {
+        return validate(token, REFRESH_TYPE);
+    }
+
+    private ValidatedToken validate(String token, String expectedType) {
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+            if (!expectedType.equals(tokenType(claims))) {
+                throw new UnsupportedJwtException("Se esperaba un token de tipo " + expectedType);
+            }
+        } catch (JwtException | IllegalArgumentException ex) {
+            metrics.parseFailed(ex); // contador por causa: expirado, firma, malformado, tipo...
+            throw ex;
+        }
+        // Con milisegundos si el token los trae (NumericDate fraccionario); getIssuedAt() los trunca
+        Instant issuedAt = numericDate(claims.get(Claims.ISSUED_AT));
+        Instant expiresAt = numericDate(claims.get(Claims.EXPIRATION));
+
+        String role;
+        Instant issuedAtInstant;
+        Integer roleCode = claims.get(COMPACT_ROLE_CLAIM, Integer.class);
+        if (roleCode != null) {
+            // Formato compacto: el rol viaja como código y 'iat' se deduce de 'exp'
+            role = Role.fromCode(roleCode).name();
+            issuedAtInstant = issuedAt != null ? issuedAt
+                    : expiresAt != null ? expiresAt.minusMillis(ACCESS_TOKEN_MILLIS) : null;
+        } else {
+            role = claims.get("role", String.class);
+            issuedAtInstant = issuedAt;
+        }
+
+        ValidatedToken validated = new ValidatedToken(
+                claims.getId(),
+                claims.getSubject(),
+                role,
+                issuedAtInstant,
+                expiresAt,
+                claims.get(SESSION_CLAIM, String.class)
+        );
+        metrics.recordParse(start);
+        return validated;
+    }
+
     //  Extraer el subject (email) del token
     public String extractUsername(String token) {
         return extractAllClaims(token).getSubject();
@@ -52,42 +148,111 @@ public class JwtUtil {
 
     //  Verificar que el token sea válido para un UserDetails
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(validateToken(token), userDetails);
+    }
+
+    //  Igual que el anterior pero sobre un token ya verificado (sin volver a parsear)
+    public boolean isTokenValid(ValidatedToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
+    // El formato compacto no lleva 'typ' (solo los access tokens tienen 'r'); los tokens emitidos
+    // antes de este claim se distinguen igual: solo los access tokens llevan rol
+    private static String tokenType(Claims claims) {
+        String type = claims.get(TYPE_CLAIM, String.class);
+        if (type != null) {
+            return type;
+        }
+        return claims.containsKey(COMPACT_ROLE_CLAIM) || claims.containsKey("role") ? ACCESS_TYPE : REFRESH_TYPE;
     }
 
     //  Reutilizable: extrae todos los claims (datos del token)
+    //  La clave se elige por el header 'kid' dentro del parser compartido
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
+        return keyManager.current()
+                .getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    //  Tu metodo existente para la clave
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-    }
-
     // Refresh de tokens
     public String generateAccessToken(User user) {
+        return generateAccessToken(user.getEmail(), user.getRole());
+    }
+
+    public String generateAccessToken(String email, Role role) {
+        return generateAccessToken(email, role, null);
+    }
+
+    public String generateAccessToken(String email, Role role, String sessionId) {
+        long start = System.nanoTime();
+        JwtKeySet keys = keyManager.current();
+        long now = System.currentTimeMillis();
+        String token = compact
+                ? compactAccessToken(keys, email, role, sessionId, now)
+                : Jwts.builder()
+                        .setHeaderParam("kid", keys.getActiveKid())
+                        .setId(UUID.randomUUID().toString()) // 'jti': permite revocarlo antes de 'exp'
+                        .setSubject(email)
+                        .claim(TYPE_CLAIM, ACCESS_TYPE)
+                        .claim("role", role.name()) // ← Aquí agregamos el rol al token
+                        .claim(SESSION_CLAIM, sessionId) // null no se escribe
+                        // 'iat' con milisegundos: UserRevocationIndex distingue un login hecho en el
+                        // mismo segundo que la revocación (cambio de contraseña o de rol)
+                        .claim(Claims.ISSUED_AT, numericDate(now))
+                        .setExpiration(new Date(now + ACCESS_TOKEN_MILLIS)) // 15 minutos
+                        .signWith(keys.getSigningKey(), keys.getAlgorithm())
+                        .compact();
+        metrics.recordSign(AuthMetrics.TokenType.ACCESS, start);
+        return token;
+    }
+
+    // jti de 128 bits en Base64url (22 caracteres frente a los 36 de un UUID) y rol numérico
+    private String compactAccessToken(JwtKeySet keys, String email, Role role, String sessionId, long now) {
+        byte[] id = new byte[16];
+        RANDOM.nextBytes(id);
         return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("role", user.getRole().name()) // ← Aquí agregamos el rol al token
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 15)) // 15 minutos
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .setHeaderParam("kid", keys.getActiveKid())
+                .setId(JTI_ENCODER.encodeToString(id))
+                .setSubject(email)
+                .claim(COMPACT_ROLE_CLAIM, role.getCode())
+                .claim(SESSION_CLAIM, sessionId)
+                .claim(Claims.EXPIRATION, numericDate(now + ACCESS_TOKEN_MILLIS)) // con milisegundos: de aquí sale 'iat'
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
                 .compact();
     }
 
-    public String generateRefreshToken(User user) {
-        return Jwts.builder()
-                .setSubject(user.getEmail())
+    // El 'jti' identifica la fila en refresh_tokens (ver RefreshTokenService)
+    public String generateRefreshToken(String email, String tokenId, Date expiration) {
+        long start = System.nanoTime();
+        JwtKeySet keys = keyManager.current();
+        String token = Jwts.builder()
+                .setHeaderParam("kid", keys.getActiveKid())
+                .setId(tokenId)
+                .setSubject(email)
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 7)) // 7 días
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .setExpiration(expiration)
+                .signWith(keys.getSigningKey(), keys.getAlgorithm())
                 .compact();
+        metrics.recordSign(AuthMetrics.TokenType.REFRESH, start);
+        return token;
+    }
+
+    // NumericDate (RFC 7519) en segundos con tres decimales: 1700000000.123
+    private static BigDecimal numericDate(long epochMillis) {
+        return BigDecimal.valueOf(epochMillis, 3);
+    }
+
+    // Acepta segundos enteros (tokens anteriores, refresh tokens) o con decimales
+    private static Instant numericDate(Object value) {
+        if (!(value instanceof Number number)) {
+            return null;
+        }
+        if (number instanceof Integer || number instanceof Long) {
+            return Instant.ofEpochSecond(number.longValue());
+        }
+        return Instant.ofEpochMilli(Math.round(number.doubleValue() * 1000));
     }
 
 
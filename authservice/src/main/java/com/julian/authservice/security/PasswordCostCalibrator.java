@@ -0,0 +1,68 @@
+package com.julian.authservice.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Arrays;
+
+// Ajusta el factor de trabajo de BCrypt y Argon2 para que un hash tarde
+// aproximadamente el presupuesto indicado en este hardware. Nunca baja de
+// los mínimos por defecto de Spring Security. PBKDF2 no se calibra: su hash
+// no guarda las iteraciones (ver PasswordEncoderConfig).
+public final class PasswordCostCalibrator {
+
+    public static final int MIN_BCRYPT_STRENGTH = 10;
+    public static final int MIN_PBKDF2_ITERATIONS = 310_000;
+    public static final int MIN_ARGON2_ITERATIONS = 2;
+
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MAX_ARGON2_ITERATIONS = 64;
+    private static final int ARGON2_MEMORY_KB = 1 << 14; // 16 MB
+
+    private static final int SAMPLES = 3;
+
+    private PasswordCostCalibrator() {}
+
+    // Cada punto de strength duplica el coste de BCrypt
+    public static int bcryptStrength(long targetMillis) {
+        int probe = 8;
+        double probeMillis = medianMillis(new BCryptPasswordEncoder(probe));
+        int strength = probe + (int) Math.round(log2(targetMillis / probeMillis));
+        return Math.max(MIN_BCRYPT_STRENGTH, Math.min(MAX_BCRYPT_STRENGTH, strength));
+    }
+
+    // Argon2: memoria fija, se ajustan las pasadas
+    public static int argon2Iterations(long targetMillis) {
+        int probe = MIN_ARGON2_ITERATIONS;
+        double probeMillis = medianMillis(argon2(probe));
+        int iterations = (int) Math.round(probe * (targetMillis / probeMillis));
+        return Math.max(MIN_ARGON2_ITERATIONS, Math.min(MAX_ARGON2_ITERATIONS, iterations));
+    }
+
+    public static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    public static Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KB, iterations);
+    }
+
+    private static double medianMillis(PasswordEncoder encoder) {
+        encoder.encode("calibracion"); // calentamiento
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibracion");
+            samples[i] = Math.max(0.01, (System.nanoTime() - start) / 1_000_000.0);
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
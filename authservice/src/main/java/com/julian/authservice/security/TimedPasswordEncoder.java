@@ -0,0 +1,41 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Mide encode/matches del encoder real (BCrypt/Argon2/PBKDF2) sin cambiar su comportamiento
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final AuthMetrics metrics;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, AuthMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            metrics.recordHash(AuthMetrics.HashOperation.ENCODE, start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            metrics.recordHash(AuthMetrics.HashOperation.MATCHES, start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,51 @@
+package com.julian.authservice.security;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Marca de agua por usuario (milisegundos): los tokens emitidos en o antes de ese instante se rechazan.
+// Solo hace falta recordar cada marca mientras pueda existir un access token anterior
+// a ella (JwtUtil.ACCESS_TOKEN_MILLIS), así que el tamaño queda acotado por las
+// revocaciones de los últimos 15 minutos y la consulta no toca la base de datos.
+@Component
+public class UserRevocationIndex {
+
+    // Por encima de este tamaño se purgan las marcas que ya no pueden afectar a ningún token
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Long> watermarks = new ConcurrentHashMap<>();
+
+    public void revokeUser(String email) {
+        revokeUser(email, Instant.now());
+    }
+
+    // Con el instante de la réplica que hizo el cambio (ver InvalidationDispatcher)
+    public void revokeUser(String email, Instant at) {
+        watermarks.merge(email, at.toEpochMilli(), Math::max);
+        if (watermarks.size() > PURGE_THRESHOLD) {
+            purgeExpired(System.currentTimeMillis());
+        }
+    }
+
+    public boolean isRevoked(String email, Instant issuedAt) {
+        Long watermark = watermarks.get(email);
+        if (watermark == null) {
+            return false;
+        }
+        // Los access tokens llevan 'iat' con milisegundos, así que un login justo después de la
+        // revocación es válido. Con 'iat' en segundos enteros (tokens anteriores) el token cae en
+        // el inicio de su segundo: ante la duda, se considera revocado
+        return issuedAt == null || issuedAt.toEpochMilli() <= watermark;
+    }
+
+    public int size() {
+        return watermarks.size();
+    }
+
+    void purgeExpired(long nowMillis) {
+        long oldestUseful = nowMillis - JwtUtil.ACCESS_TOKEN_MILLIS;
+        watermarks.values().removeIf(watermark -> watermark < oldestUseful);
+    }
+}
@@ -0,0 +1,59 @@
+package com.julian.authservice.security;
+
+import java.time.Instant;
+
+// Resultado inmutable de parsear y verificar un JWT una sola vez.
+// Se reutiliza durante la petición en lugar de volver a parsear el token.
+public final class ValidatedToken {
+
+    private final String id;
+    private final String subject;
+    private final String role;
+    private final Instant issuedAt;
+    private final Instant expiration;
+    private final String sessionId;
+
+    public ValidatedToken(String id, String subject, String role, Instant issuedAt, Instant expiration) {
+        this(id, subject, role, issuedAt, expiration, null);
+    }
+
+    public ValidatedToken(String id, String subject, String role, Instant issuedAt, Instant expiration, String sessionId) {
+        this.id = id;
+        this.subject = subject;
+        this.role = role;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.sessionId = sessionId;
+    }
+
+    // Claim 'jti'; null en tokens emitidos sin identificador
+    public String getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    // null en tokens sin claim de rol (por ejemplo, refresh tokens)
+    public String getRole() {
+        return role;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    // Claim 'sid': sesión (login) de la que sale el token; null en tokens anteriores a las sesiones
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.isBefore(Instant.now());
+    }
+}
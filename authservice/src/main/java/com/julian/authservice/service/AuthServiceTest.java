@@ -1,9 +1,13 @@
 package com.julian.authservice.service;
 
+import com.julian.authservice.bus.InvalidationBus;
 import com.julian.authservice.dto.LoginRequest;
 import com.julian.authservice.dto.RegisterRequest;
+import com.julian.authservice.metrics.AuthMetrics;
 import com.julian.authservice.model.Role;
 import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserCredentialsView;
+import com.julian.authservice.repository.UserIdentityView;
 import com.julian.authservice.repository.UserRepository;
 import com.julian.authservice.security.JwtUtil;
 import com.julian.authservice.dto.LoginResponse;
@@ -16,6 +20,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +37,18 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtService;
 
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private AuthMetrics metrics;
+
     @InjectMocks
     private UserService authService;
 
@@ -47,8 +64,8 @@ class AuthServiceTest {
         when(userRepository.findByEmail("julian@example.com")).thenReturn(Optional.empty());
         //when(passwordEncoder.encode("123")).thenReturn("hashed123");
 
-        // Simula que save devuelve el mismo usuario
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Simula que saveAndFlush devuelve el mismo usuario
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         User createdUser = authService.registerUser(request);
@@ -58,17 +75,18 @@ class AuthServiceTest {
         assertEquals("julian@example.com", createdUser.getEmail());
         //assertEquals("hashed123", createdUser.getPassword());
         assertNotNull(createdUser.getRole()); // si tu lógica asigna un rol por default
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
     void testRegisterUser_WhenEmailExists_ShouldThrowException() {
         // Arrange
         RegisterRequest request = new RegisterRequest("julian", "julian@example.com", "123");
-        User existing = new User();
-        existing.setEmail("julian@example.com");
+        UserIdentityView existing = mock(UserIdentityView.class);
+        when(existing.getEmail()).thenReturn("julian@example.com");
+        when(existing.getUsername()).thenReturn("otro");
 
-        when(userRepository.existsByEmail("julian@example.com")).thenReturn(true);
+        when(userRepository.findByEmailOrUsername("julian@example.com", "julian")).thenReturn(List.of(existing));
 
         // Act & Assert
         RuntimeException ex = assertThrows(RuntimeException.class, () -> {
@@ -76,7 +94,8 @@ class AuthServiceTest {
         });
 
         assertEquals("El correo ya está registrado", ex.getMessage());
-        verify(userRepository, never()).save(any());
+        verify(passwordEncoder, never()).encode(any()); // el duplicado no llega al hash
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -86,14 +105,12 @@ class AuthServiceTest {
         request.setEmail("julian@example.com");
         request.setPassword("123");
 
-        User user = new User();
-        user.setEmail("julian@example.com");
-        user.setPassword("hashed123");
+        UserCredentialsView user = new UserCredentialsView(1L, "julian@example.com", "hashed123", Role.USER);
 
-        when(userRepository.findByEmail("julian@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByEmail("julian@example.com")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("123", "hashed123")).thenReturn(true);
-        when(jwtService.generateAccessToken(user)).thenReturn("accessToken123");
-        when(jwtService.generateRefreshToken(user)).thenReturn("refreshToken456");
+        when(jwtService.generateAccessToken(eq("julian@example.com"), eq(Role.USER), anyString())).thenReturn("accessToken123");
+        when(refreshTokenService.issue(eq("julian@example.com"), eq(Role.USER), anyString())).thenReturn("refreshToken456");
 
         // Act
         LoginResponse response = authService.loginUser(request);
@@ -102,6 +119,7 @@ class AuthServiceTest {
         assertNotNull(response);
         assertEquals("accessToken123", response.getAccessToken());
         assertEquals("refreshToken456", response.getRefreshToken());
+        verify(sessionService).open(anyString(), any(), any(), any()); // la fila de sesión se encola
     }
 
     @Test
@@ -111,7 +129,7 @@ class AuthServiceTest {
         request.setEmail("noexiste@example.com");
         request.setPassword("123");
 
-        when(userRepository.findByEmail("noexiste@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findCredentialsByEmail("noexiste@example.com")).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -119,6 +137,8 @@ class AuthServiceTest {
         });
 
         assertEquals("Usuario no encontrado", exception.getMessage());
+        // Se compara contra el hash ficticio: mismo coste que con un usuario existente
+        verify(passwordEncoder).matches(eq("123"), any());
     }
 
     @Test
@@ -128,11 +148,9 @@ class AuthServiceTest {
         request.setEmail("julian@example.com");
         request.setPassword("wrong");
 
-        User user = new User();
-        user.setEmail("julian@example.com");
-        user.setPassword("hashedPassword");
+        UserCredentialsView user = new UserCredentialsView(1L, "julian@example.com", "hashedPassword", Role.USER);
 
-        when(userRepository.findByEmail("julian@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findCredentialsByEmail("julian@example.com")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("wrong", "hashedPassword")).thenReturn(false);
 
         // Act & Assert
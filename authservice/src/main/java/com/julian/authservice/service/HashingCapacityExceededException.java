@@ -0,0 +1,16 @@
+package com.julian.authservice.service;
+
+// La cola del pool de hashing está llena: se responde 503 con Retry-After
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Servicio saturado, intenta de nuevo más tarde");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
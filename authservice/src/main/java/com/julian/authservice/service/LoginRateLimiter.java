@@ -0,0 +1,103 @@
+package com.julian.authservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Límite de intentos de login por email y por IP, delante del hash de contraseñas.
+// Cada clave es un token bucket en forma GCRA: un único AtomicLong (el "theoretical
+// arrival time") actualizado con CAS, sin locks ni contadores compartidos entre claves.
+// Las claves viven en una caché acotada; una clave inactiva más allá de la ráfaga
+// tiene el bucket lleno, así que expulsarla no cambia el resultado.
+@Component
+public class LoginRateLimiter {
+
+    private final Bucket byEmail;
+    private final Bucket byIp;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${auth.login.rate-limit.email.per-minute:5}") int emailPerMinute,
+                            @Value("${auth.login.rate-limit.email.burst:5}") int emailBurst,
+                            @Value("${auth.login.rate-limit.ip.per-minute:60}") int ipPerMinute,
+                            @Value("${auth.login.rate-limit.ip.burst:20}") int ipBurst,
+                            @Value("${auth.login.rate-limit.max-keys:100000}") long maxKeys) {
+        this(emailPerMinute, emailBurst, ipPerMinute, ipBurst, maxKeys, System::nanoTime);
+    }
+
+    LoginRateLimiter(int emailPerMinute, int emailBurst, int ipPerMinute, int ipBurst,
+                     long maxKeys, LongSupplier nanoClock) {
+        this.byEmail = new Bucket(emailPerMinute, emailBurst, maxKeys, nanoClock);
+        this.byIp = new Bucket(ipPerMinute, ipBurst, maxKeys, nanoClock);
+    }
+
+    // Lanza TooManyLoginAttemptsException sin tocar la base de datos ni el pool de hashing
+    public void check(String email, String ip) {
+        long ipWait = byIp.tryAcquire(ip != null ? ip : "");
+        if (ipWait > 0) {
+            throw new TooManyLoginAttemptsException(toRetryAfterSeconds(ipWait));
+        }
+        long emailWait = byEmail.tryAcquire(normalize(email));
+        if (emailWait > 0) {
+            throw new TooManyLoginAttemptsException(toRetryAfterSeconds(emailWait));
+        }
+    }
+
+    // Login correcto: el usuario legítimo no arrastra los fallos anteriores
+    public void reset(String email) {
+        byEmail.reset(normalize(email));
+    }
+
+    private static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static final class Bucket {
+        private final long intervalNanos;   // tiempo entre intentos a ritmo sostenido
+        private final long toleranceNanos;  // ráfaga permitida sobre ese ritmo
+        private final LongSupplier nanoClock;
+        private final Cache<String, AtomicLong> arrivals;
+
+        private Bucket(int perMinute, int burst, long maxKeys, LongSupplier nanoClock) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+            this.nanoClock = nanoClock;
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(intervalNanos + toleranceNanos))
+                    .build();
+        }
+
+        // 0 si se admite el intento; si no, nanosegundos hasta el siguiente permitido
+        private long tryAcquire(String key) {
+            AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            while (true) {
+                long now = nanoClock.getAsLong();
+                long previous = arrival.get();
+                long tat = previous == Long.MIN_VALUE || previous - now < 0 ? now : previous;
+                long wait = tat - toleranceNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrival.compareAndSet(previous, tat + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        private void reset(String key) {
+            arrivals.invalidate(key);
+        }
+    }
+}
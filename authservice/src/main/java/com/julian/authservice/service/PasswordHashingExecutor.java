@@ -0,0 +1,103 @@
+package com.julian.authservice.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Pool dedicado para el trabajo con hash de contraseñas (login, registro).
+// Tamaño = núcleos y cola acotada: si se llena se falla rápido en lugar de
+// ocupar los hilos de Tomcat que atienden peticiones baratas con token.
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public PasswordHashingExecutor(@Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:100}") int queueCapacity,
+                                   @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Lanza HashingCapacityExceededException de inmediato si no hay sitio en la cola
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+    }
+
+    // Saturación del pool: hilos ocupados, cola y rechazos (Spring Boot registra los MeterBinder)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.hashing.pool.size", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .description("Hilos del pool de hashing")
+                .register(registry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hilos calculando un hash ahora mismo")
+                .register(registry);
+        Gauge.builder("auth.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Tareas esperando en la cola del pool de hashing")
+                .register(registry);
+        Gauge.builder("auth.hashing.queue.remaining", executor, e -> e.getQueue().remainingCapacity())
+                .description("Huecos libres en la cola antes de responder 503")
+                .register(registry);
+        FunctionCounter.builder("auth.hashing.rejected", rejected, LongAdder::sum)
+                .description("Tareas rechazadas por cola llena (503)")
+                .register(registry);
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueRemainingCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
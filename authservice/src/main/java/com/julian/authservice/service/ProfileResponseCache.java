@@ -0,0 +1,75 @@
+package com.julian.authservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.julian.authservice.repository.UserProfileView;
+import com.julian.authservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Respuesta de GET /auth/me ya serializada, por email y con un TTL corto. Un sondeo con la
+// entrada en caché no consulta la base de datos ni pasa por Jackson; con If-None-Match
+// responde 304. InvalidationDispatcher la descarta cuando cambia la fila del usuario.
+@Component
+public class ProfileResponseCache {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedProfile> cache;
+
+    @Autowired
+    public ProfileResponseCache(UserRepository userRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${auth.profile-cache.max-size:10000}") long maxSize,
+                                @Value("${auth.profile-cache.ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public CachedProfile get(String email) {
+        return cache.get(email, this::load);
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    private CachedProfile load(String email) {
+        UserProfileView profile = userRepository.findProfileViewByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        try {
+            // ETag fuerte: cualquier UPDATE de la fila sube la versión
+            String etag = "\"" + profile.getId() + "." + profile.getVersion() + "\"";
+            return new CachedProfile(etag, objectMapper.writeValueAsBytes(profile.toDto()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo serializar el perfil", ex);
+        }
+    }
+
+    public static final class CachedProfile {
+        private final String etag;
+        private final byte[] body;
+
+        private CachedProfile(String etag, byte[] body) {
+            this.etag = etag;
+            this.body = body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
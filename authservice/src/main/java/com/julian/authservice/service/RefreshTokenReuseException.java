@@ -0,0 +1,9 @@
+package com.julian.authservice.service;
+
+// Se presentó un refresh token ya rotado: se revoca toda su familia
+public class RefreshTokenReuseException extends RuntimeException {
+
+    public RefreshTokenReuseException() {
+        super("Refresh token reutilizado: sesión revocada");
+    }
+}
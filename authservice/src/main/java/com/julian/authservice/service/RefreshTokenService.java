@@ -0,0 +1,183 @@
+package com.julian.authservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.julian.authservice.dto.LoginResponse;
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.metrics.AuthMetrics.RefreshOutcome;
+import com.julian.authservice.model.RefreshToken;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.RefreshTokenRepository;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.ValidatedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Refresh tokens con estado: cada uno es una fila indexada por su 'jti', se rota en
+// cada uso y reutilizar uno ya rotado revoca toda la familia (el login del que salió).
+// Un índice en memoria acotado evita ir a la base de datos para los tokens recientes.
+@Service
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository repository;
+    private final JwtUtil jwtUtil;
+    private final Cache<String, HotEntry> hotIndex;
+    private final int purgeBatchSize;
+    private final AuthMetrics metrics;
+    private final SessionService sessionService;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository repository,
+                               JwtUtil jwtUtil,
+                               AuthMetrics metrics,
+                               SessionService sessionService,
+                               @Value("${auth.refresh.hot-index-size:100000}") long hotIndexSize,
+                               @Value("${auth.refresh.purge-batch-size:1000}") int purgeBatchSize) {
+        this.repository = repository;
+        this.jwtUtil = jwtUtil;
+        this.hotIndex = Caffeine.newBuilder()
+                .maximumSize(hotIndexSize)
+                .build();
+        this.purgeBatchSize = purgeBatchSize;
+        this.metrics = metrics;
+        this.sessionService = sessionService;
+    }
+
+    // Nuevo login: nueva familia
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    // La familia es la sesión: su id viaja como 'sid' en los access tokens que salen de ella
+    public String issue(User user, String sessionId) {
+        return issue(user.getEmail(), user.getRole(), sessionId);
+    }
+
+    // Valida el refresh token, lo marca como usado y devuelve un par nuevo de la misma familia
+    public LoginResponse rotate(String refreshToken) {
+        long start = System.nanoTime();
+        RefreshOutcome outcome = RefreshOutcome.INVALID;
+        try {
+            LoginResponse response = doRotate(refreshToken);
+            outcome = RefreshOutcome.SUCCESS;
+            return response;
+        } catch (ExpiredJwtException ex) {
+            outcome = RefreshOutcome.EXPIRED;
+            throw ex;
+        } catch (RefreshTokenReuseException ex) {
+            outcome = RefreshOutcome.REUSE;
+            throw ex;
+        } finally {
+            metrics.recordRefresh(outcome, start);
+        }
+    }
+
+    private LoginResponse doRotate(String refreshToken) {
+        ValidatedToken token = jwtUtil.validateRefreshToken(refreshToken); // firma, expiración y tipo
+        if (token.getId() == null) {
+            throw new IllegalArgumentException("Refresh token sin identificador");
+        }
+
+        HotEntry entry = hotIndex.get(token.getId(), this::load);
+        if (entry == null || entry.revoked) {
+            throw new IllegalArgumentException("Refresh token revocado o desconocido");
+        }
+
+        // Primero en memoria y luego en la base de datos (cubre otras réplicas)
+        if (!entry.used.compareAndSet(false, true)
+                || repository.markUsed(token.getId(), Instant.now()) == 0) {
+            revokeFamily(entry.familyId);
+            sessionService.revoke(entry.familyId); // también sus access tokens vivos
+            throw new RefreshTokenReuseException();
+        }
+
+        String accessToken = jwtUtil.generateAccessToken(entry.email, entry.role, entry.familyId);
+        String nextRefreshToken = issue(entry.email, entry.role, entry.familyId);
+        sessionService.touch(entry.familyId);
+        return new LoginResponse(accessToken, nextRefreshToken);
+    }
+
+    // Logout: revoca la familia del refresh token presentado (solo si pertenece a 'email')
+    public void revoke(String refreshToken, String email) {
+        ValidatedToken token = jwtUtil.validateRefreshToken(refreshToken);
+        if (token.getId() == null || !token.getSubject().equals(email)) {
+            throw new IllegalArgumentException("Refresh token inválido");
+        }
+        HotEntry entry = hotIndex.get(token.getId(), this::load);
+        if (entry != null && !entry.revoked) {
+            revokeFamily(entry.familyId);
+        }
+    }
+
+    public void revokeFamily(String familyId) {
+        List<String> ids = repository.findIdsByFamilyId(familyId);
+        repository.revokeFamily(familyId);
+        hotIndex.invalidateAll(ids);
+    }
+
+    // Cambio de contraseña o de rol: ningún refresh token anterior sigue sirviendo
+    public void revokeAllForUser(String email) {
+        List<String> ids = repository.findActiveIdsByEmail(email);
+        repository.revokeAllByEmail(email);
+        hotIndex.invalidateAll(ids);
+    }
+
+    // Borra filas expiradas por lotes para no bloquear la tabla con un DELETE gigante
+    @Scheduled(fixedDelayString = "${auth.refresh.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        List<String> ids;
+        do {
+            ids = repository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (!ids.isEmpty()) {
+                repository.deleteAllByIdInBatch(ids);
+                hotIndex.invalidateAll(ids);
+            }
+        } while (ids.size() == purgeBatchSize);
+    }
+
+    // Login con proyección (sin entidad User)
+    public String issue(String email, Role role, String familyId) {
+        String id = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(JwtUtil.REFRESH_TOKEN_MILLIS);
+
+        repository.save(new RefreshToken(id, familyId, email, role, now, expiresAt));
+        hotIndex.put(id, new HotEntry(familyId, email, role, false, false));
+        return jwtUtil.generateRefreshToken(email, id, Date.from(expiresAt));
+    }
+
+    private HotEntry load(String id) {
+        return repository.findById(id)
+                .map(row -> new HotEntry(row.getFamilyId(), row.getEmail(), row.getRole(),
+                        row.isRevoked(), row.getUsedAt() != null))
+                .orElse(null);
+    }
+
+    private static final class HotEntry {
+        private final String familyId;
+        private final String email;
+        private final Role role;
+        private final boolean revoked;
+        private final AtomicBoolean used;
+
+        private HotEntry(String familyId, String email, Role role, boolean revoked, boolean used) {
+            this.familyId = familyId;
+            this.email = email;
+            this.role = role;
+            this.revoked = revoked;
+            this.used = new AtomicBoolean(used);
+        }
+    }
+}
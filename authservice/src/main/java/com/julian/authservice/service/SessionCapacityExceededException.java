@@ -0,0 +1,16 @@
+package com.julian.authservice.service;
+
+// La cola de sesiones sigue llena tras un flush (base de datos caída): se responde 503 con Retry-After
+public class SessionCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SessionCapacityExceededException(long retryAfterSeconds) {
+        super("Servicio saturado, intenta de nuevo más tarde");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,239 @@
+package com.julian.authservice.service;
+
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.bus.InvalidationEvent;
+import com.julian.authservice.dto.SessionDTO;
+import com.julian.authservice.model.UserSession;
+import com.julian.authservice.repository.UserSessionRepository;
+import com.julian.authservice.security.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Registro de sesiones por usuario. Las altas (login) y los usos (refresh) se encolan en memoria
+// y se escriben por lotes cada flush-interval, fuera del camino del login. La revocación se
+// publica en el bus y acaba en AccessTokenDenylist por 'sid' en cada réplica: el filtro JWT
+// la aplica sin consultar la base de datos.
+@Service
+public class SessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionService.class);
+
+    private static final int USER_AGENT_LENGTH = 255;
+    private static final int IP_ADDRESS_LENGTH = 45;
+
+    private final UserSessionRepository repository;
+    private final InvalidationBus invalidationBus;
+    private final int maxPending;
+    private final int batchSize;
+    private final long retryAfterSeconds;
+
+    private final Queue<UserSession> pendingCreates = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // Varios refresh de la misma sesión en un intervalo se escriben como uno solo
+    private final Set<String> pendingTouches = ConcurrentHashMap.newKeySet();
+
+    public SessionService(UserSessionRepository repository, InvalidationBus invalidationBus, int maxPending, int batchSize) {
+        this(repository, invalidationBus, maxPending, batchSize, Duration.ofSeconds(1));
+    }
+
+    @Autowired
+    public SessionService(UserSessionRepository repository,
+                          InvalidationBus invalidationBus,
+                          @Value("${auth.sessions.max-pending:10000}") int maxPending,
+                          @Value("${auth.sessions.batch-size:500}") int batchSize,
+                          @Value("${auth.sessions.flush-interval:PT1S}") Duration flushInterval) {
+        this.repository = repository;
+        this.invalidationBus = invalidationBus;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        // El siguiente flush programado es el próximo momento en que la cola puede vaciarse
+        this.retryAfterSeconds = Math.max(1, flushInterval.toSeconds());
+    }
+
+    // Login: la fila se escribe en el siguiente flush (o ya, si la cola está llena)
+    public void open(String sessionId, Long userId, String userAgent, String ipAddress) {
+        if (pendingCount.get() >= maxPending) {
+            flush();
+            if (pendingCount.get() >= maxPending) {
+                // La base de datos no acepta las altas: se rechaza el login antes que perder su sesión
+                // (sin fila no aparecería en /auth/me/sessions ni se podría revocar por id)
+                throw new SessionCapacityExceededException(retryAfterSeconds);
+            }
+        }
+        if (userAgent != null && userAgent.length() > USER_AGENT_LENGTH) {
+            userAgent = userAgent.substring(0, USER_AGENT_LENGTH);
+        }
+        ipAddress = normalizeIpAddress(ipAddress);
+        pendingCreates.add(new UserSession(sessionId, userId, userAgent, ipAddress, Instant.now()));
+        if (pendingCount.incrementAndGet() >= maxPending) {
+            flush();
+        }
+    }
+
+    // Refresh: actualiza last_used_at en el siguiente flush
+    public void touch(String sessionId) {
+        pendingTouches.add(sessionId);
+        if (pendingTouches.size() >= maxPending) {
+            flush();
+        }
+    }
+
+    // Si la base de datos falla, las filas vuelven a la cola y se reintentan en el siguiente flush.
+    // pendingCount solo baja cuando el lote se ha guardado, así que open() ve la cola llena.
+    @Scheduled(fixedDelayString = "${auth.sessions.flush-interval:PT1S}")
+    public synchronized void flush() {
+        List<UserSession> creates = new ArrayList<>(batchSize);
+        UserSession session;
+        while ((session = pendingCreates.poll()) != null) {
+            creates.add(session);
+            if (creates.size() == batchSize) {
+                if (!saveBatch(creates)) {
+                    return;
+                }
+                creates = new ArrayList<>(batchSize);
+            }
+        }
+        if (!creates.isEmpty() && !saveBatch(creates)) {
+            return;
+        }
+
+        // Después de las altas: un refresh justo tras el login encuentra ya su fila.
+        // Se sacan de una en una: un touch que llega mientras tanto se queda para el siguiente flush
+        if (!pendingTouches.isEmpty()) {
+            List<String> ids = new ArrayList<>();
+            for (Iterator<String> it = pendingTouches.iterator(); it.hasNext(); ) {
+                ids.add(it.next());
+                it.remove();
+            }
+            Instant now = Instant.now();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<String> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                try {
+                    repository.touch(batch, now);
+                } catch (RuntimeException ex) {
+                    log.warn("No se pudo actualizar el uso de las sesiones, se reintentará: {}", ex.getMessage());
+                    pendingTouches.addAll(ids.subList(from, ids.size())); // idempotente
+                    return;
+                }
+            }
+        }
+    }
+
+    // saveAll es transaccional: o se guarda el lote entero o no se guarda ninguna fila
+    private boolean saveBatch(List<UserSession> batch) {
+        try {
+            repository.saveAll(batch); // inserts JDBC por lotes (Persistable, sin SELECT previo)
+            pendingCount.addAndGet(-batch.size());
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            // Alguna fila no se puede insertar nunca: se aísla guardando de una en una
+            return saveOneByOne(batch);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron guardar {} sesiones, se reintentará: {}", batch.size(), ex.getMessage());
+            pendingCreates.addAll(batch);
+            return false;
+        }
+    }
+
+    // Las filas que violan una restricción se descartan (reintentarlas llenaría la cola para siempre);
+    // ante cualquier otro error el resto del lote vuelve a la cola
+    private boolean saveOneByOne(List<UserSession> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            UserSession session = batch.get(i);
+            try {
+                repository.save(session);
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Sesión {} descartada, no se puede guardar: {}", session.getId(), ex.getMessage());
+            } catch (RuntimeException ex) {
+                log.warn("No se pudieron guardar {} sesiones, se reintentará: {}", batch.size() - i, ex.getMessage());
+                pendingCreates.addAll(batch.subList(i, batch.size()));
+                return false;
+            }
+            pendingCount.decrementAndGet();
+        }
+        return true;
+    }
+
+    // IPv6 con zona (fe80::1%eth0): la zona solo tiene sentido en el host local
+    private static String normalizeIpAddress(String ipAddress) {
+        if (ipAddress == null) {
+            return null;
+        }
+        int zone = ipAddress.indexOf('%');
+        if (zone >= 0) {
+            ipAddress = ipAddress.substring(0, zone);
+        }
+        return ipAddress.length() > IP_ADDRESS_LENGTH ? ipAddress.substring(0, IP_ADDRESS_LENGTH) : ipAddress;
+    }
+
+    public Page<SessionDTO> list(Long userId, String currentSessionId, int page, int size) {
+        flush(); // incluye el login recién hecho
+        return repository.findByUserIdAndRevokedFalseOrderByLastUsedAtDesc(userId, PageRequest.of(page, size))
+                .map(session -> new SessionDTO(session.getId(), session.getUserAgent(), session.getIpAddress(),
+                        session.getCreatedAt(), session.getLastUsedAt(), session.getId().equals(currentSessionId)));
+    }
+
+    // Cierra una sesión del usuario; false si no existe, ya estaba cerrada o es de otro usuario
+    public boolean revoke(Long userId, String sessionId) {
+        flush();
+        if (repository.revoke(sessionId, userId) == 0) {
+            return false;
+        }
+        // Sus access tokens caducan como mucho en ACCESS_TOKEN_MILLIS
+        invalidationBus.publish(InvalidationEvent.tokenRevoked(sessionId, null));
+        return true;
+    }
+
+    // Sin comprobar el dueño: logout o reutilización de un refresh token de la sesión
+    public void revoke(String sessionId) {
+        flush();
+        repository.revoke(sessionId);
+        invalidationBus.publish(InvalidationEvent.tokenRevoked(sessionId, null));
+    }
+
+    // Todas las sesiones del usuario; devuelve sus ids para revocar también sus refresh tokens
+    public List<String> revokeAll(Long userId) {
+        flush();
+        List<String> ids = repository.findActiveIdsByUserId(userId);
+        repository.revokeAllByUserId(userId);
+        for (String id : ids) {
+            invalidationBus.publish(InvalidationEvent.tokenRevoked(id, null));
+        }
+        return ids;
+    }
+
+    // Borra sesiones cerradas o sin uso desde que caducó su último refresh token posible
+    @Scheduled(fixedDelayString = "${auth.sessions.purge-interval:PT10M}")
+    public void purgeStale() {
+        Instant before = Instant.now().minusMillis(JwtUtil.REFRESH_TOKEN_MILLIS);
+        List<String> ids;
+        do {
+            ids = repository.findStaleIds(before, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                repository.deleteAllByIdInBatch(ids);
+            }
+        } while (ids.size() == batchSize);
+    }
+
+    int pending() {
+        return pendingCount.get() + pendingTouches.size();
+    }
+}
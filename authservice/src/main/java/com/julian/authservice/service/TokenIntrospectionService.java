@@ -0,0 +1,169 @@
+package com.julian.authservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.julian.authservice.dto.IntrospectionResponse;
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.UserRevocationIndex;
+import com.julian.authservice.security.ValidatedToken;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Introspección para consumidores que no verifican JWT por su cuenta.
+// El resultado del parseo (firma + claims) se guarda por token hasta su 'exp', así que
+// un token repetido no vuelve a verificar la firma; la revocación (denylist por jti y
+// marca de agua por usuario) sí se comprueba en cada consulta porque puede cambiar.
+// Solo los access tokens (con rol) se consideran activos; los refresh tokens no.
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtUtil jwtUtil;
+    private final AccessTokenDenylist denylist;
+    private final UserRevocationIndex revocationIndex;
+    private final Cache<String, ValidatedToken> cache;
+    private final ExecutorService pool;
+    private final int parallelism;
+    private final int maxBatchSize;
+
+    @Autowired
+    public TokenIntrospectionService(JwtUtil jwtUtil,
+                                     AccessTokenDenylist denylist,
+                                     UserRevocationIndex revocationIndex,
+                                     @Value("${auth.introspection.cache-size:100000}") long cacheSize,
+                                     @Value("${auth.introspection.threads:0}") int threads,
+                                     @Value("${auth.introspection.max-batch-size:500}") int maxBatchSize) {
+        this.jwtUtil = jwtUtil;
+        this.denylist = denylist;
+        this.revocationIndex = revocationIndex;
+        this.maxBatchSize = maxBatchSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "introspection-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return IntrospectionResponse.inactive();
+        }
+
+        ValidatedToken validated = cache.getIfPresent(token);
+        if (validated == null) {
+            try {
+                validated = jwtUtil.validateToken(token);
+            } catch (JwtException | IllegalArgumentException ex) {
+                return IntrospectionResponse.inactive(); // los inválidos no se guardan
+            }
+            if (validated.getRole() == null || validated.getExpiration() == null) {
+                return IntrospectionResponse.inactive();
+            }
+            cache.put(token, validated);
+        }
+
+        if (validated.isExpired()
+                || denylist.isRevoked(validated)
+                || revocationIndex.isRevoked(validated.getSubject(), validated.getIssuedAt())) {
+            return IntrospectionResponse.inactive();
+        }
+        return IntrospectionResponse.active(
+                validated.getSubject(),
+                validated.getRole(),
+                validated.getId(),
+                validated.getIssuedAt() != null ? validated.getIssuedAt().getEpochSecond() : null,
+                validated.getExpiration().getEpochSecond());
+    }
+
+    // Resultados en el mismo orden que la entrada; el lote se reparte en un tramo por hilo
+    public List<IntrospectionResponse> introspectAll(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Máximo " + maxBatchSize + " tokens por lote");
+        }
+        IntrospectionResponse[] results = new IntrospectionResponse[tokens.size()];
+        int slices = Math.min(parallelism, tokens.size());
+        if (slices <= 1) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = introspect(tokens.get(i));
+            }
+            return Arrays.asList(results);
+        }
+
+        int sliceSize = (tokens.size() + slices - 1) / slices;
+        List<Callable<Void>> tasks = new ArrayList<>(slices);
+        for (int from = 0; from < tokens.size(); from += sliceSize) {
+            int start = from;
+            int end = Math.min(from + sliceSize, tokens.size());
+            tasks.add(() -> {
+                for (int i = start; i < end; i++) {
+                    results[i] = introspect(tokens.get(i));
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Introspección interrumpida", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Error en la introspección por lotes", ex.getCause());
+        }
+        return Arrays.asList(results);
+    }
+
+    public long cacheSize() {
+        return cache.estimatedSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // Cada entrada vive exactamente hasta el 'exp' de su token
+    private static final class UntilTokenExpiry implements Expiry<String, ValidatedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, ValidatedToken value, long currentTime) {
+            long millis = value.getExpiration().toEpochMilli() - Instant.now().toEpochMilli();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, ValidatedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, ValidatedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.julian.authservice.service;
+
+// Demasiados intentos de login para el email o la IP: se responde 429 con Retry-After
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(long retryAfterSeconds) {
+        super("Demasiados intentos de inicio de sesión, intenta de nuevo más tarde");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
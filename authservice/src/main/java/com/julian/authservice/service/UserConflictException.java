@@ -0,0 +1,40 @@
+package com.julian.authservice.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// Email o username ya registrados: se responde 409 indicando el campo en conflicto
+public class UserConflictException extends RuntimeException {
+
+    private final String field;
+
+    public UserConflictException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public static UserConflictException email() {
+        return new UserConflictException("email", "El correo ya está registrado");
+    }
+
+    public static UserConflictException username() {
+        return new UserConflictException("username", "El nombre de usuario ya está en uso");
+    }
+
+    // Traduce la violación de una restricción única (uk_users_email / uk_users_username)
+    public static UserConflictException from(DataIntegrityViolationException ex) {
+        String detail = String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (detail.contains("uk_users_email")) {
+            return email();
+        }
+        if (detail.contains("uk_users_username")) {
+            return username();
+        }
+        throw ex; // otra restricción: no es un conflicto de registro
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,358 @@
+package com.julian.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.julian.authservice.dto.ImportRowResult;
+import com.julian.authservice.dto.ImportUserRow;
+import com.julian.authservice.dto.RegisterRequest;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserIdentityView;
+import com.julian.authservice.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// Importación masiva de usuarios por lotes: consultas de duplicados por lote (no por fila),
+// hash en paralelo en un pool propio e inserts JDBC por lotes en una transacción.
+// Los resultados se escriben en NDJSON al terminar cada lote.
+@Service
+public class UserImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    // Hashes aceptados tal cual: con prefijo del DelegatingPasswordEncoder o BCrypt sin prefijo
+    private static final Pattern KNOWN_HASH = Pattern.compile("^(\\{(bcrypt|argon2|pbkdf2)}|\\$2[aby]\\$).+");
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository,
+                             EntityManager entityManager,
+                             PasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${auth.import.threads:0}") int threads,
+                             @Value("${auth.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void importUsers(InputStream in, Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> csvColumns = null;
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                if (csvColumns == null) {
+                    // La respuesta ya empezó (200): el error va como fila y no se importa nada
+                    PendingRow header = new PendingRow(lineNumber);
+                    header.result = ImportRowResult.invalid(lineNumber, "La cabecera CSV debe incluir username y email");
+                    writeResults(List.of(header), out);
+                    return;
+                }
+                continue;
+            }
+
+            chunk.add(parseRow(lineNumber, line, format, csvColumns));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk);
+                writeResults(chunk, out);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk);
+            writeResults(chunk, out);
+        }
+    }
+
+    private PendingRow parseRow(long lineNumber, String line, Format format, Map<String, Integer> csvColumns) {
+        PendingRow pending = new PendingRow(lineNumber);
+        try {
+            pending.row = format == Format.NDJSON
+                    ? objectMapper.readValue(line, ImportUserRow.class)
+                    : parseCsvRow(line, csvColumns);
+        } catch (IOException | RuntimeException ex) {
+            pending.result = ImportRowResult.invalid(lineNumber, "Fila mal formada");
+        }
+        return pending;
+    }
+
+    private void processChunk(List<PendingRow> chunk) {
+        List<PendingRow> valid = validate(chunk);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Duplicados contra la base de datos: consultas por lote, no por fila
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (PendingRow pending : valid) {
+            emails.add(pending.row.getEmail());
+            usernames.add(pending.row.getUsername());
+        }
+        Set<String> takenEmails = new HashSet<>();
+        for (UserIdentityView identity : userRepository.findByEmailIn(emails)) {
+            takenEmails.add(identity.getEmail());
+        }
+        Set<String> takenUsernames = new HashSet<>();
+        for (UserIdentityView identity : userRepository.findByUsernameIn(usernames)) {
+            takenUsernames.add(identity.getUsername());
+        }
+
+        List<PendingRow> toInsert = new ArrayList<>(valid.size());
+        for (PendingRow pending : valid) {
+            if (takenEmails.contains(pending.row.getEmail())) {
+                pending.result = conflict(pending.line, UserConflictException.email());
+            } else if (takenUsernames.contains(pending.row.getUsername())) {
+                pending.result = conflict(pending.line, UserConflictException.username());
+            } else {
+                toInsert.add(pending);
+            }
+        }
+
+        hashPasswords(toInsert);
+        insert(toInsert);
+    }
+
+    // Valida campos y descarta duplicados dentro del mismo lote
+    private List<PendingRow> validate(List<PendingRow> chunk) {
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+
+        for (PendingRow pending : chunk) {
+            if (pending.result != null) {
+                continue;
+            }
+            ImportUserRow row = pending.row;
+            String error = validationError(row);
+            if (error != null) {
+                pending.result = ImportRowResult.invalid(pending.line, error);
+            } else if (!seenEmails.add(row.getEmail())) {
+                pending.result = conflict(pending.line, UserConflictException.email());
+            } else if (!seenUsernames.add(row.getUsername())) {
+                pending.result = conflict(pending.line, UserConflictException.username());
+            } else {
+                valid.add(pending);
+            }
+        }
+        return valid;
+    }
+
+    // Mismas reglas que /auth/register (anotaciones de RegisterRequest); con passwordHash
+    // la longitud de la contraseña no se puede comprobar
+    private String validationError(ImportUserRow row) {
+        if (isBlank(row.getPassword()) && isBlank(row.getPasswordHash())) {
+            return "Se requiere password o passwordHash";
+        }
+        RegisterRequest request = new RegisterRequest(row.getUsername(), row.getEmail(), row.getPassword());
+        for (String property : isBlank(row.getPasswordHash())
+                ? List.of("username", "email", "password")
+                : List.of("username", "email")) {
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validateProperty(request, property);
+            if (!violations.isEmpty()) {
+                return violations.iterator().next().getMessage();
+            }
+        }
+        if (!isBlank(row.getPasswordHash()) && !KNOWN_HASH.matcher(row.getPasswordHash()).matches()) {
+            return "Formato de passwordHash no soportado";
+        }
+        if (!isBlank(row.getRole())) {
+            try {
+                Role.valueOf(row.getRole().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                return "Rol desconocido: " + row.getRole();
+            }
+        }
+        return null;
+    }
+
+    // Las contraseñas en claro se hashean en paralelo; los hashes importados se guardan tal cual
+    private void hashPasswords(List<PendingRow> rows) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            ImportUserRow row = pending.row;
+            if (isBlank(row.getPasswordHash())) {
+                futures.add(CompletableFuture.runAsync(
+                        () -> pending.user = toUser(row, passwordEncoder.encode(row.getPassword())), hashingPool));
+            } else {
+                pending.user = toUser(row, row.getPasswordHash());
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void insert(List<PendingRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<User> users = new ArrayList<>(rows.size());
+        for (PendingRow pending : rows) {
+            users.add(pending.user);
+        }
+
+        try {
+            // Un lote = una transacción con inserts JDBC agrupados (hibernate.jdbc.batch_size)
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userRepository.flush();
+                // El import corre en el hilo de StreamingResponseBody. Con open-in-view (dev) su
+                // interceptor asíncrono enlaza también ahí el EntityManager de la petición, que
+                // acumularía todas las filas importadas y las revisaría en cada flush: clear() lo
+                // vacía tras cada lote. Sin open-in-view (perfil prod) cada transacción usa su
+                // propio EntityManager y clear() no cambia nada
+                entityManager.clear();
+            });
+            for (PendingRow pending : rows) {
+                pending.result = ImportRowResult.created(pending.line, pending.user.getId());
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // Otro proceso insertó alguno de estos usuarios: se reintenta fila a fila
+            for (PendingRow pending : rows) {
+                pending.user.setId(null);
+                pending.user.setVersion(null);
+                try {
+                    User saved = transactionTemplate.execute(status -> userRepository.saveAndFlush(pending.user));
+                    pending.result = ImportRowResult.created(pending.line, saved.getId());
+                } catch (DataIntegrityViolationException rowEx) {
+                    pending.result = conflict(pending.line, UserConflictException.from(rowEx));
+                }
+            }
+        }
+    }
+
+    private void writeResults(List<PendingRow> chunk, OutputStream out) throws IOException {
+        for (PendingRow pending : chunk) {
+            out.write(objectMapper.writeValueAsBytes(pending.result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static User toUser(ImportUserRow row, String passwordHash) {
+        User user = new User();
+        user.setUsername(row.getUsername());
+        user.setEmail(row.getEmail());
+        user.setPassword(passwordHash);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setRole(isBlank(row.getRole()) ? Role.USER : Role.valueOf(row.getRole().trim().toUpperCase(Locale.ROOT)));
+        return user;
+    }
+
+    private static ImportRowResult conflict(long line, UserConflictException ex) {
+        return ImportRowResult.conflict(line, ex.getField(), ex.getMessage());
+    }
+
+    // CSV simple: cabecera con nombres de columna y valores separados por comas (sin comillas).
+    // null si faltan columnas obligatorias
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        String[] names = line.split(",", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].trim(), i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey("email")) {
+            return null;
+        }
+        return columns;
+    }
+
+    private static ImportUserRow parseCsvRow(String line, Map<String, Integer> columns) {
+        String[] values = line.split(",", -1);
+        ImportUserRow row = new ImportUserRow();
+        row.setUsername(csvValue(values, columns, "username"));
+        row.setEmail(csvValue(values, columns, "email"));
+        row.setPassword(csvValue(values, columns, "password"));
+        row.setPasswordHash(csvValue(values, columns, "passwordHash"));
+        row.setRole(csvValue(values, columns, "role"));
+        return row;
+    }
+
+    private static String csvValue(String[] values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.length) {
+            return null;
+        }
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private static final class PendingRow {
+        private final long line;
+        private ImportUserRow row;
+        private User user;
+        private ImportRowResult result;
+
+        private PendingRow(long line) {
+            this.line = line;
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.julian.authservice.service;
 
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.bus.InvalidationEvent;
+import com.julian.authservice.dto.ChangePasswordRequest;
 import com.julian.authservice.dto.LoginRequest;
 import com.julian.authservice.dto.LoginResponse;
 import com.julian.authservice.dto.RegisterRequest;
-//import com.julian.authservice.model.Role;
+import com.julian.authservice.dto.SessionDTO;
+import com.julian.authservice.dto.UserDTO;
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.metrics.AuthMetrics.LoginOutcome;
+import com.julian.authservice.metrics.AuthMetrics.RegisterOutcome;
+import com.julian.authservice.model.Role;
 import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserCredentialsView;
+import com.julian.authservice.repository.UserIdentityView;
 import com.julian.authservice.repository.UserRepository;
 import com.julian.authservice.security.JwtUtil;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -17,6 +29,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import static com.julian.authservice.model.Role.USER;
 
@@ -26,23 +40,58 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; // ← cambia tipo a interfaz
     private final JwtUtil jwtUtil;
+    private final InvalidationBus invalidationBus;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthMetrics metrics;
+    private final SessionService sessionService;
+
+    // Hash con el algoritmo y coste actuales de una contraseña aleatoria: un email desconocido
+    // paga el mismo matches() que uno existente y la latencia no delata qué emails están registrados
+    private final String dummyHash;
 
     @Autowired
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       JwtUtil jwtUtil) {
+                       JwtUtil jwtUtil,
+                       InvalidationBus invalidationBus,
+                       RefreshTokenService refreshTokenService,
+                       SessionService sessionService,
+                       AuthMetrics metrics) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder; // ← ya no uses new BCrypt
         this.jwtUtil = jwtUtil;
+        this.invalidationBus = invalidationBus;
+        this.refreshTokenService = refreshTokenService;
+        this.metrics = metrics;
+        this.sessionService = sessionService;
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
     }
 
     public User registerUser(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("El correo ya está registrado");
+        long start = System.nanoTime();
+        RegisterOutcome outcome = RegisterOutcome.ERROR;
+        try {
+            User saved = doRegister(request);
+            outcome = RegisterOutcome.SUCCESS;
+            return saved;
+        } catch (UserConflictException ex) {
+            outcome = RegisterOutcome.CONFLICT;
+            throw ex;
+        } finally {
+            metrics.recordRegister(outcome, start);
         }
+    }
 
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("El nombre de usuario ya está en uso");
+    private User doRegister(RegisterRequest request) {
+        // Una sola consulta y antes del hash: un duplicado no gasta BCrypt
+        List<UserIdentityView> existing = userRepository.findByEmailOrUsername(request.getEmail(), request.getUsername());
+        for (UserIdentityView identity : existing) {
+            if (request.getEmail().equals(identity.getEmail())) {
+                throw UserConflictException.email();
+            }
+        }
+        if (!existing.isEmpty()) {
+            throw UserConflictException.username();
         }
 
         String hashedPassword = passwordEncoder.encode(request.getPassword());
@@ -54,38 +103,144 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setRole(USER);
 
-
-        return userRepository.save(user);
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            invalidationBus.publish(InvalidationEvent.userChanged(saved.getEmail()));
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            // Registro simultáneo con los mismos datos: lo resuelven las restricciones únicas
+            throw UserConflictException.from(ex);
+        }
     }
 
     public LoginResponse loginUser(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return loginUser(request, null, null);
+    }
+
+    // userAgent e ipAddress solo se guardan para el listado de sesiones
+    public LoginResponse loginUser(LoginRequest request, String userAgent, String ipAddress) {
+        long start = System.nanoTime();
+        LoginOutcome outcome = LoginOutcome.ERROR;
+        try {
+            // Se ejecuta en el pool de hashing (ver AuthController): los fallos también consumen su capacidad.
+            // Proyección de solo lectura: no se carga la entidad User
+            UserCredentialsView user = userRepository.findCredentialsByEmail(request.getEmail()).orElse(null);
+
+            if (user == null) {
+                passwordEncoder.matches(request.getPassword(), dummyHash); // mismo coste, resultado descartado
+                outcome = LoginOutcome.UNKNOWN_USER;
+                throw new RuntimeException("Usuario no encontrado");
+            }
+
+            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+                outcome = LoginOutcome.BAD_PASSWORD;
+                throw new RuntimeException("Contraseña incorrecta");
+            }
+
+            // Hash con algoritmo o coste anticuado: se actualiza ahora que tenemos la contraseña en claro
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                userRepository.updatePassword(user.getId(), passwordEncoder.encode(request.getPassword()));
+                invalidationBus.publish(InvalidationEvent.userChanged(user.getEmail()));
+            }
+
+            // Cada login abre una sesión; su fila se escribe por lotes (SessionService).
+            // Se abre antes de emitir tokens: si el registro está saturado no queda un refresh huérfano
+            String sessionId = UUID.randomUUID().toString();
+            sessionService.open(sessionId, user.getId(), userAgent, ipAddress);
+            String accessToken = jwtUtil.generateAccessToken(user.getEmail(), user.getRole(), sessionId);
+            String refreshToken = refreshTokenService.issue(user.getEmail(), user.getRole(), sessionId);
+
+            outcome = LoginOutcome.SUCCESS;
+            return new LoginResponse(accessToken, refreshToken);
+        } finally {
+            metrics.recordLogin(outcome, start);
+        }
+    }
+
+    // Cambia la contraseña del usuario autenticado e invalida sus tokens anteriores
+    public void changePassword(ChangePasswordRequest request) {
+        User user = getCurrentUser();
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new RuntimeException("Contraseña incorrecta");
         }
 
-        String accessToken = jwtUtil.generateAccessToken(user);
-        String refreshToken = jwtUtil.generateRefreshToken(user);
+        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        userRepository.save(user);
+        revokeAll(user.getEmail(), user.getId());
+    }
+
+    // Cambia el rol; los tokens con el rol anterior dejan de aceptarse
+    public User changeRole(Long userId, Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        revokeAll(saved.getEmail(), saved.getId());
+        return saved;
+    }
+
+    // Revoca todos los tokens emitidos hasta ahora (access por marca de agua, refresh en la base de datos)
+    public User revokeTokens(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        revokeAll(user.getEmail(), user.getId());
+        return user;
+    }
+
+    // Sesiones abiertas del usuario autenticado, la más reciente primero
+    public Page<SessionDTO> listSessions(String currentSessionId, int page, int size) {
+        return sessionService.list(getCurrentProfile().getId(), currentSessionId, page, size);
+    }
+
+    // Cierra una sesión propia: su familia de refresh tokens y sus access tokens (por 'sid')
+    public void revokeSession(String sessionId) {
+        UserDTO user = getCurrentProfile();
+        if (!sessionService.revoke(user.getId(), sessionId)) {
+            throw new RuntimeException("Sesión no encontrada");
+        }
+        refreshTokenService.revokeFamily(sessionId);
+    }
+
+    // "Cerrar sesión en todos los dispositivos"
+    public void revokeAllSessions() {
+        UserDTO user = getCurrentProfile();
+        revokeAll(user.getEmail(), user.getId());
+    }
 
-        return new LoginResponse(accessToken, refreshToken);
+    // Access tokens por marca de agua (y caché de UserDetails) en todas las réplicas,
+    // refresh tokens en la base de datos y filas de sesión
+    private void revokeAll(String email, Long userId) {
+        invalidationBus.publish(InvalidationEvent.userRevoked(email));
+        refreshTokenService.revokeAllForUser(email);
+        sessionService.revokeAll(userId);
     }
+
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    // Entidad gestionada: solo para modificarla (cambio de contraseña)
     public User getCurrentUser() {
+        return userRepository.findByEmail(currentEmail())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    }
+
+    // Lectura de /auth/me y de las sesiones: proyección sin hash ni entidad
+    public UserDTO getCurrentProfile() {
+        return userRepository.findProfileByEmail(currentEmail())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    }
+
+    // Email del principal autenticado (sin consultar la base de datos)
+    public String currentEmail() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        String email;
         if (principal instanceof UserDetails) {
-            email = ((UserDetails) principal).getUsername();
-        } else {
-            email = principal.toString(); // fallback
+            return ((UserDetails) principal).getUsername();
         }
-
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        return principal.toString(); // fallback
     }
 }
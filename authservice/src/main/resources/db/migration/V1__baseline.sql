@@ -0,0 +1,50 @@
+-- Esquema inicial (perfil prod). SQL común a H2 (MODE=PostgreSQL) y PostgreSQL.
+-- Hibernate solo valida contra este esquema (ddl-auto=validate); los cambios van en V2, V3...
+
+-- Bloques de 50 ids por llamada (allocationSize de User): inserts por lotes sin IDENTITY
+create sequence users_seq start with 1 increment by 50;
+
+create table users (
+    id         bigint       not null,
+    username   varchar(255) not null,
+    email      varchar(255) not null,
+    password   varchar(255) not null,
+    created_at timestamp(6),
+    role       varchar(16)  not null,
+    primary key (id),
+    -- Cada UNIQUE crea el índice b-tree que usan findByEmail / findByUsername (y sus variantes *In).
+    -- Los nombres son fijos: UserConflictException los usa para responder 409 por campo.
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username)
+);
+
+create table refresh_tokens (
+    id         varchar(36)                 not null,
+    family_id  varchar(36)                 not null,
+    email      varchar(255)                not null,
+    role       varchar(16)                 not null,
+    issued_at  timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    used_at    timestamp(6) with time zone,
+    revoked    boolean                     not null,
+    primary key (id)
+);
+
+-- Revocar una familia (reutilización / logout), revocar por usuario y purgar expirados
+create index idx_refresh_tokens_family on refresh_tokens (family_id);
+create index idx_refresh_tokens_email on refresh_tokens (email);
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
+
+create table user_sessions (
+    id           varchar(36)                 not null,
+    user_id      bigint                      not null,
+    user_agent   varchar(255),
+    ip_address   varchar(45),
+    created_at   timestamp(6) with time zone not null,
+    last_used_at timestamp(6) with time zone not null,
+    revoked      boolean                     not null,
+    primary key (id)
+);
+
+-- Listado paginado de /auth/me/sessions: filtra por usuario y ordena por último uso
+create index idx_user_sessions_user on user_sessions (user_id, last_used_at);
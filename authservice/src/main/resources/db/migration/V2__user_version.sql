@@ -0,0 +1,2 @@
+-- Bloqueo optimista de users (@Version) y ETag de /auth/me; las filas existentes empiezan en 0
+alter table users add column version bigint default 0 not null;
@@ -0,0 +1,98 @@
+package com.julian.authservice;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Perfil prod contra H2 en archivo (modo PostgreSQL): migraciones Flyway, esquema validado
+// por Hibernate, índices de users y estadísticas expuestas como métricas
+@SpringBootTest
+@ActiveProfiles("prod")
+class ProdProfileTests {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dataDir.resolve("authdb")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        registry.add("auth.introspection.client-key", () -> "clave-de-prueba");
+        registry.add("auth.password.calibrate", () -> "false");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSchema_IsCreatedByMigrationsAndValidated() {
+        // El contexto solo arranca si ddl-auto=validate acepta el esquema de db/migration
+        assertEquals("2", flyway.info().current().getVersion().getVersion());
+    }
+
+    @Test
+    void testUsers_EmailAndUsernameLookupsAreIndexed() throws Exception {
+        Set<String> indexedColumns = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             ResultSet indexes = connection.getMetaData().getIndexInfo(null, null, "users", false, false)) {
+            while (indexes.next()) {
+                if (indexes.getShort("ORDINAL_POSITION") == 1) {
+                    indexedColumns.add(indexes.getString("COLUMN_NAME").toLowerCase());
+                }
+            }
+        }
+        assertTrue(indexedColumns.contains("email"));
+        assertTrue(indexedColumns.contains("username"));
+    }
+
+    @Test
+    void testStatistics_AreCollectedAndExported() {
+        User user = new User();
+        user.setUsername("prod");
+        user.setEmail("prod@example.com");
+        user.setPassword("{noop}x");
+        user.setRole(Role.USER);
+        userRepository.saveAndFlush(user);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getQueryExecutionCount() + statistics.getPrepareStatementCount();
+        assertTrue(userRepository.findByEmail("prod@example.com").isPresent());
+
+        assertTrue(statistics.isStatisticsEnabled());
+        assertTrue(statistics.getQueryExecutionCount() + statistics.getPrepareStatementCount() > before);
+        assertNotNull(meterRegistry.find("hibernate.statements").functionCounter());
+    }
+}
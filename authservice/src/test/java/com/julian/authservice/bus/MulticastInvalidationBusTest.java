@@ -0,0 +1,96 @@
+package com.julian.authservice.bus;
+
+import com.julian.authservice.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos "réplicas" en la misma JVM unidas por multicast sobre la interfaz loopback
+class MulticastInvalidationBusTest {
+
+    private static final String GROUP = "239.255.27.1";
+
+    private final List<InvalidationBus> buses = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(InvalidationBus::close);
+    }
+
+    @Test
+    void testPublish_DeliversLocallyAndToOtherReplicaOnce() throws Exception {
+        int port = randomPort();
+        InvalidationBus nodeA = bus(port, "secreto");
+        InvalidationBus nodeB = bus(port, "secreto");
+        LinkedBlockingQueue<InvalidationEvent> receivedA = new LinkedBlockingQueue<>();
+        LinkedBlockingQueue<InvalidationEvent> receivedB = new LinkedBlockingQueue<>();
+        nodeA.subscribe(receivedA::add);
+        nodeB.subscribe(receivedB::add);
+
+        nodeA.publish(InvalidationEvent.tokenRevoked("sid-1", Instant.ofEpochMilli(1234)));
+
+        assertNotNull(receivedA.poll()); // síncrono en el nodo que publica
+        InvalidationEvent remote = receivedB.poll(5, TimeUnit.SECONDS);
+        assertNotNull(remote);
+        assertEquals(InvalidationEvent.Type.TOKEN_REVOKED, remote.getType());
+        assertEquals("sid-1", remote.getKey());
+        assertEquals(1234, remote.getTimestamp());
+
+        // El propio datagrama vuelve por loopback y se descarta
+        assertNull(receivedA.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testPublish_MessagesWithAnotherSecretAreDropped() throws Exception {
+        int port = randomPort();
+        InvalidationBus nodeA = bus(port, "secreto");
+        InvalidationBus intruder = bus(port, "otro");
+        LinkedBlockingQueue<InvalidationEvent> receivedA = new LinkedBlockingQueue<>();
+        nodeA.subscribe(receivedA::add);
+
+        intruder.publish(InvalidationEvent.userRevoked("julian@example.com"));
+
+        assertNull(receivedA.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testConstructor_SecretIsRequired() {
+        assertThrows(IllegalStateException.class, () -> bus(randomPort(), ""));
+    }
+
+    @Test
+    void testDecode_FutureTimestampsAreRejected() throws Exception {
+        int port = randomPort();
+        MulticastInvalidationBus nodeA = (MulticastInvalidationBus) bus(port, "secreto");
+        MulticastInvalidationBus nodeB = (MulticastInvalidationBus) bus(port, "secreto");
+        long now = System.currentTimeMillis();
+
+        // Una marca de agua en el futuro dejaría al usuario fuera hasta esa fecha
+        assertThrows(IOException.class, () -> nodeB.decode(nodeA.encode(new InvalidationEvent(
+                InvalidationEvent.Type.USER_REVOKED, "julian@example.com", now + 60_000))));
+        assertThrows(IOException.class, () -> nodeB.decode(nodeA.encode(new InvalidationEvent(
+                InvalidationEvent.Type.TOKEN_REVOKED, "sid-1", now + JwtUtil.ACCESS_TOKEN_MILLIS + 60_000))));
+
+        assertNotNull(nodeB.decode(nodeA.encode(InvalidationEvent.userRevoked("julian@example.com"))));
+        assertNotNull(nodeB.decode(nodeA.encode(InvalidationEvent.tokenRevoked("sid-1", null))));
+    }
+
+    private InvalidationBus bus(int port, String secret) throws Exception {
+        InvalidationBus bus = new MulticastInvalidationBus(GROUP, port, "lo", 0, secret);
+        buses.add(bus);
+        return bus;
+    }
+
+    private static int randomPort() {
+        return ThreadLocalRandom.current().nextInt(40000, 50000);
+    }
+}
@@ -0,0 +1,33 @@
+package com.julian.authservice.config;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Http2ConfigTest {
+
+    private final Http2Config config = new Http2Config();
+
+    @Test
+    void testCustomizer_RaisesStreamLimitsOnHttp2Protocol() {
+        Connector connector = new Connector();
+        Http2Protocol http2 = new Http2Protocol();
+        connector.addUpgradeProtocol(http2);
+
+        config.http2StreamLimits(300, 150).customize(connector);
+
+        assertEquals(300, http2.getMaxConcurrentStreams());
+        assertEquals(150, http2.getMaxConcurrentStreamExecution());
+    }
+
+    @Test
+    void testCustomizer_WithoutHttp2IsNoop() {
+        Connector connector = new Connector();
+
+        config.http2StreamLimits(300, 150).customize(connector);
+
+        assertEquals(0, connector.findUpgradeProtocols().length);
+    }
+}
@@ -0,0 +1,72 @@
+package com.julian.authservice.config;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderConfigTest {
+
+    private final PasswordEncoderConfig config = new PasswordEncoderConfig();
+
+    @Test
+    void testLegacyBCryptHash_MatchesAndNeedsUpgrade() {
+        PasswordEncoder encoder = config.passwordEncoder("bcrypt", 50, false, 310_000, AuthMetrics.noop());
+        String legacy = new BCryptPasswordEncoder().encode("MiPassword123!");
+
+        assertTrue(encoder.matches("MiPassword123!", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void testCurrentHash_DoesNotNeedUpgrade() {
+        PasswordEncoder encoder = config.passwordEncoder("bcrypt", 50, false, 310_000, AuthMetrics.noop());
+        String hash = encoder.encode("MiPassword123!");
+
+        assertTrue(hash.startsWith("{bcrypt}"));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void testSwitchingAlgorithm_OldHashesStillMatchAndAreUpgraded() {
+        String bcryptHash = config.passwordEncoder("bcrypt", 50, false, 310_000, AuthMetrics.noop()).encode("MiPassword123!");
+        PasswordEncoder argon2 = config.passwordEncoder("argon2", 50, false, 310_000, AuthMetrics.noop());
+
+        assertTrue(argon2.matches("MiPassword123!", bcryptHash));
+        assertTrue(argon2.upgradeEncoding(bcryptHash));
+        assertTrue(argon2.encode("MiPassword123!").startsWith("{argon2}"));
+    }
+
+    @Test
+    void testPbkdf2Hash_MatchesOnAnotherEncoderInstance() {
+        // Otro arranque: calibrate=true y otro presupuesto no deben cambiar las iteraciones de PBKDF2
+        String hash = config.passwordEncoder("pbkdf2", 50, true, 310_000, AuthMetrics.noop()).encode("MiPassword123!");
+        PasswordEncoder restarted = config.passwordEncoder("pbkdf2", 500, true, 310_000, AuthMetrics.noop());
+
+        assertTrue(hash.startsWith("{pbkdf2}"));
+        assertTrue(restarted.matches("MiPassword123!", hash));
+        assertFalse(restarted.matches("OtraPassword", hash));
+    }
+
+    @Test
+    void testSwitchingAwayFromPbkdf2_OldHashesStillMatch() {
+        String hash = config.passwordEncoder("pbkdf2", 50, false, 400_000, AuthMetrics.noop()).encode("MiPassword123!");
+        PasswordEncoder bcrypt = config.passwordEncoder("bcrypt", 50, false, 400_000, AuthMetrics.noop());
+
+        assertTrue(bcrypt.matches("MiPassword123!", hash));
+        assertTrue(bcrypt.upgradeEncoding(hash));
+    }
+
+    @Test
+    void testPbkdf2IterationsBelowMinimum_AreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> config.passwordEncoder("bcrypt", 50, false, 1000, AuthMetrics.noop()));
+    }
+
+    @Test
+    void testUnknownAlgorithm_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> config.passwordEncoder("md5", 50, false, 310_000, AuthMetrics.noop()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.service.HashingCapacityExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ApiExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new SaturatedController())
+            .setControllerAdvice(new ApiExceptionHandler())
+            .build();
+
+    @Test
+    void testHashingCapacityExceeded_Returns503WithRetryAfter() throws Exception {
+        mockMvc.perform(post("/auth/login"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error").value("Servicio saturado, intenta de nuevo más tarde"));
+    }
+
+    @RestController
+    static class SaturatedController {
+        @PostMapping("/auth/login")
+        public String login() {
+            throw new HashingCapacityExceededException(2);
+        }
+    }
+}
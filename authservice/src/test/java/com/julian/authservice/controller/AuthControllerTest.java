@@ -0,0 +1,71 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.CustomUserDetailsService;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.service.LoginRateLimiter;
+import com.julian.authservice.service.PasswordHashingExecutor;
+import com.julian.authservice.service.ProfileResponseCache;
+import com.julian.authservice.service.RefreshTokenService;
+import com.julian.authservice.service.SessionCapacityExceededException;
+import com.julian.authservice.service.SessionService;
+import com.julian.authservice.service.UserImportService;
+import com.julian.authservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AuthControllerTest {
+
+    private static final String CREDENTIALS = "{\"email\":\"julian@example.com\",\"password\":\"Secreta123\"}";
+
+    private UserService userService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        AuthController controller = new AuthController(userService, mock(JwtUtil.class), mock(PasswordEncoder.class),
+                mock(CustomUserDetailsService.class), new PasswordHashingExecutor(1, 10, 1),
+                mock(UserImportService.class), mock(RefreshTokenService.class), mock(AccessTokenDenylist.class),
+                new LoginRateLimiter(60, 60, 60, 60, 1000), mock(SessionService.class),
+                mock(InvalidationBus.class), mock(ProfileResponseCache.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testLogin_SessionRegistryFullReturns503NotBadCredentials() throws Exception {
+        when(userService.loginUser(any(), any(), any())).thenThrow(new SessionCapacityExceededException(1));
+
+        mockMvc.perform(asyncDispatch(login()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testLogin_WrongCredentialsReturns401() throws Exception {
+        when(userService.loginUser(any(), any(), any())).thenThrow(new RuntimeException("Contraseña incorrecta"));
+
+        mockMvc.perform(asyncDispatch(login()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private MvcResult login() throws Exception {
+        return mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON).content(CREDENTIALS))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
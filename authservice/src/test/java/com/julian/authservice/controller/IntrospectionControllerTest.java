@@ -0,0 +1,31 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.dto.IntrospectionResponse;
+import com.julian.authservice.service.TokenIntrospectionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IntrospectionControllerTest {
+
+    private final TokenIntrospectionService service = mock(TokenIntrospectionService.class);
+
+    @Test
+    void testWithoutClientKey_StartupFails() {
+        assertThrows(IllegalStateException.class, () -> new IntrospectionController(service, ""));
+        assertThrows(IllegalStateException.class, () -> new IntrospectionController(service, "  "));
+    }
+
+    @Test
+    void testIntrospect_RequiresTheConfiguredKey() {
+        IntrospectionController controller = new IntrospectionController(service, "clave-interna");
+        when(service.introspect("tok")).thenReturn(mock(IntrospectionResponse.class));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.introspect("tok", null).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.introspect("tok", "otra").getStatusCode());
+        assertEquals(HttpStatus.OK, controller.introspect("tok", "clave-interna").getStatusCode());
+        verify(service, times(1)).introspect("tok");
+    }
+}
@@ -0,0 +1,46 @@
+package com.julian.authservice.controller;
+
+import com.julian.authservice.security.JwtKeyManager;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksControllerTest {
+
+    private final JwtKeyManager keyManager = new JwtKeyManager(
+            "ClaveDePruebaNumeroUno_0123456789abcdef", "ec1", "", "ES256", "", "");
+    private final JwksController controller = new JwksController(keyManager, Duration.ofMinutes(5));
+
+    @Test
+    void testJwks_PublishesEcKeyWithCacheHeaders() {
+        ResponseEntity<byte[]> response = controller.jwks(null);
+        String body = new String(response.getBody(), StandardCharsets.UTF_8);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(body.contains("\"kid\":\"ec1\""));
+        assertTrue(body.contains("\"crv\":\"P-256\""));
+        assertEquals("max-age=300, public", response.getHeaders().getCacheControl());
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void testJwks_SameEtagReturnsNotModifiedUntilKeysRotate() {
+        String etag = controller.jwks(null).getHeaders().getETag();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.jwks(etag).getStatusCode());
+
+        keyManager.rotate("ec2", Keys.keyPairFor(SignatureAlgorithm.ES256));
+
+        ResponseEntity<byte[]> rotated = controller.jwks(etag);
+        assertEquals(HttpStatus.OK, rotated.getStatusCode());
+        assertNotEquals(etag, rotated.getHeaders().getETag());
+        assertTrue(new String(rotated.getBody(), StandardCharsets.UTF_8).contains("\"kid\":\"ec2\""));
+    }
+}
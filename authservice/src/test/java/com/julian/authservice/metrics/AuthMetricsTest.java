@@ -0,0 +1,48 @@
+package com.julian.authservice.metrics;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(new JwtKeyManager("ClaveDePruebaNumeroUno_0123456789abcdef", "k1"), new AuthMetrics(registry));
+    }
+
+    @Test
+    void testValidateToken_RecordsSignAndParseTimers() {
+        jwtUtil.validateToken(jwtUtil.generateToken("julian@example.com"));
+        jwtUtil.validateToken(jwtUtil.generateAccessToken("julian@example.com", Role.USER));
+
+        assertEquals(1, registry.get("auth.jwt.sign").tag("type", "access").timer().count());
+        assertEquals(2, registry.get("auth.jwt.parse").timer().count());
+    }
+
+    @Test
+    void testValidateToken_CountsFailuresByCause() {
+        String token = jwtUtil.generateToken("julian@example.com");
+        String otherKey = new JwtUtil(new JwtKeyManager("OtraClaveDistintaNumeroDos_0123456789abcdef", "k1"))
+                .generateToken("julian@example.com");
+
+        assertThrows(JwtException.class, () -> jwtUtil.validateToken(token.substring(0, token.length() - 4) + "AAAA"));
+        assertThrows(JwtException.class, () -> jwtUtil.validateToken(otherKey));
+        assertThrows(JwtException.class, () -> jwtUtil.validateToken("no-es-un-jwt"));
+        assertThrows(IllegalArgumentException.class, () -> jwtUtil.validateToken(""));
+
+        assertEquals(2, registry.get("auth.jwt.parse.failures").tag("cause", "signature").counter().count());
+        assertEquals(2, registry.get("auth.jwt.parse.failures").tag("cause", "malformed").counter().count());
+        assertEquals(0, registry.get("auth.jwt.parse").timer().count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.julian.authservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenDenylistTest {
+
+    @Test
+    void testRevoke_TokenIsRejectedUntilExpiry() {
+        AccessTokenDenylist denylist = new AccessTokenDenylist(1000, 0.01);
+
+        denylist.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        assertTrue(denylist.isRevoked("jti-1"));
+        assertFalse(denylist.isRevoked("jti-2"));
+        assertFalse(denylist.isRevoked((String) null));
+    }
+
+    @Test
+    void testRevoke_AlreadyExpiredTokenIsNotStored() {
+        AccessTokenDenylist denylist = new AccessTokenDenylist(1000, 0.01);
+
+        denylist.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertEquals(0, denylist.size());
+        assertFalse(denylist.isRevoked("jti-1"));
+    }
+
+    @Test
+    void testRotation_KeepsLiveEntriesAndDropsExpiredOnes() throws InterruptedException {
+        // Generaciones de 20 ms para forzar varias rotaciones
+        AccessTokenDenylist denylist = new AccessTokenDenylist(1000, 0.01, 20);
+
+        denylist.revoke("larga", Instant.now().plusSeconds(60));
+        denylist.revoke("corta", Instant.now().plusMillis(30));
+        Thread.sleep(100);
+
+        assertTrue(denylist.isRevoked("larga"));
+        assertFalse(denylist.isRevoked("corta"));
+        assertEquals(1, denylist.size());
+    }
+}
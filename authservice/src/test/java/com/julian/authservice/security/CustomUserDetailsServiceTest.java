@@ -0,0 +1,61 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.repository.UserCredentialsView;
+import com.julian.authservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private CustomUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        service = new CustomUserDetailsService(userRepository, 100, Duration.ofMinutes(5));
+
+        UserCredentialsView user = new UserCredentialsView(1L, "julian@example.com", "hashed123", Role.ADMIN);
+        when(userRepository.findCredentialsByEmail("julian@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void testLoadUser_SecondCallIsServedFromCache() {
+        UserDetails first = service.loadUserByUsername("julian@example.com");
+        UserDetails second = service.loadUserByUsername("julian@example.com");
+
+        assertSame(first, second);
+        assertEquals("ROLE_ADMIN", first.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findCredentialsByEmail("julian@example.com");
+        assertEquals(1, service.stats().hitCount());
+        assertEquals(1, service.stats().missCount());
+    }
+
+    @Test
+    void testEvict_NextCallReloadsFromDatabase() {
+        service.loadUserByUsername("julian@example.com");
+        service.evict("julian@example.com");
+        service.loadUserByUsername("julian@example.com");
+
+        verify(userRepository, times(2)).findCredentialsByEmail("julian@example.com");
+    }
+
+    @Test
+    void testLoadUser_UnknownEmailIsNotCached() {
+        when(userRepository.findCredentialsByEmail("noexiste@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("noexiste@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("noexiste@example.com"));
+
+        verify(userRepository, times(2)).findCredentialsByEmail("noexiste@example.com");
+    }
+}
@@ -0,0 +1,95 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetailsService userDetailsService;
+    private UserRevocationIndex revocationIndex;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(new JwtKeyManager("ClaveDePruebaNumeroUno_0123456789abcdef", "k1"));
+        userDetailsService = mock(CustomUserDetailsService.class);
+        revocationIndex = new UserRevocationIndex();
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationIndex,
+                new AccessTokenDenylist(1000, 0.01), AuthMetrics.noop(), "claims");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testClaimsMode_AuthenticatesFromSignedRoleWithoutLoadingUser() throws Exception {
+        MockHttpServletRequest request = request(jwtUtil.generateAccessToken("julian@example.com", Role.ADMIN, "s1"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals("julian@example.com", ((AuthUserDetails) auth.getPrincipal()).getUsername());
+        assertEquals("ROLE_ADMIN", auth.getAuthorities().iterator().next().getAuthority());
+        assertEquals("s1", request.getAttribute(JwtAuthenticationFilter.SESSION_ATTRIBUTE));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testClaimsMode_RevokedUserIsNotAuthenticated() throws Exception {
+        String token = jwtUtil.generateAccessToken("julian@example.com", Role.ADMIN);
+        revocationIndex.revokeUser("julian@example.com", Instant.now().plusSeconds(1)); // cambio de rol posterior
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testClaimsMode_TokenWithoutRoleFallsBackToDatabase() throws Exception {
+        when(userDetailsService.loadUserByUsername("julian@example.com"))
+                .thenReturn(new AuthUserDetails("julian@example.com", "hash", Role.USER));
+
+        filter.doFilter(request(jwtUtil.generateToken("julian@example.com")), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService).loadUserByUsername("julian@example.com");
+    }
+
+    @Test
+    void testRefreshTokenIsNotAcceptedAsBearer() throws Exception {
+        String refreshToken = jwtUtil.generateRefreshToken("julian@example.com", "jti-1",
+                new Date(System.currentTimeMillis() + JwtUtil.REFRESH_TOKEN_MILLIS));
+        when(userDetailsService.loadUserByUsername("julian@example.com"))
+                .thenReturn(new AuthUserDetails("julian@example.com", "hash", Role.USER));
+
+        filter.doFilter(request(refreshToken), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyManagerTest {
+
+    private static final String SECRET_1 = "ClaveDePruebaNumeroUno_0123456789abcdef";
+    private static final String SECRET_2 = "ClaveDePruebaNumeroDos_0123456789abcdef";
+
+    private JwtKeyManager keyManager;
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        keyManager = new JwtKeyManager(SECRET_1, "k1");
+        jwtUtil = new JwtUtil(keyManager);
+
+        user = new User();
+        user.setEmail("julian@example.com");
+        user.setRole(Role.USER);
+    }
+
+    @Test
+    void testRotate_TokensFromPreviousKeyStayValid() {
+        String oldToken = jwtUtil.generateAccessToken(user);
+
+        keyManager.rotate("k2", SECRET_2);
+        String newToken = jwtUtil.generateAccessToken(user);
+
+        assertEquals("k2", keyManager.current().getActiveKid());
+        assertEquals("julian@example.com", jwtUtil.extractUsername(oldToken));
+        assertEquals("julian@example.com", jwtUtil.extractUsername(newToken));
+    }
+
+    @Test
+    void testRetire_TokensFromRetiredKeyAreRejected() {
+        String oldToken = jwtUtil.generateAccessToken(user);
+
+        keyManager.rotate("k2", SECRET_2);
+        keyManager.retire("k1");
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractUsername(oldToken));
+    }
+
+    @Test
+    void testRetire_ActiveKeyIsNotAllowed() {
+        assertThrows(IllegalArgumentException.class, () -> keyManager.retire("k1"));
+    }
+
+    @Test
+    void testPreviousKeys_VerifyTokensSignedBeforeRestart() {
+        JwtUtil before = new JwtUtil(new JwtKeyManager(SECRET_1, "k1"));
+        String token = before.generateAccessToken(user);
+
+        JwtUtil after = new JwtUtil(new JwtKeyManager(SECRET_2, "k2", "k1=" + SECRET_1));
+
+        assertEquals("julian@example.com", after.extractUsername(token));
+    }
+
+    @Test
+    void testEs256_SignsWithPrivateKeyAndAcceptsPreviousHmacTokens() {
+        String hmacToken = jwtUtil.generateAccessToken(user);
+
+        JwtKeyManager ecManager = new JwtKeyManager(SECRET_2, "ec1", "k1=" + SECRET_1, "ES256", "", "");
+        JwtUtil ecUtil = new JwtUtil(ecManager);
+        String ecToken = ecUtil.generateAccessToken(user);
+
+        assertEquals(SignatureAlgorithm.ES256, ecManager.current().getAlgorithm());
+        assertEquals("julian@example.com", ecUtil.extractUsername(ecToken));
+        assertEquals("julian@example.com", ecUtil.extractUsername(hmacToken));
+        // Solo se publica la clave pública EC, nunca el secreto HMAC
+        assertEquals(Set.of("ec1"), ecManager.current().getPublicKeys().keySet());
+        // Un token ES256 no verifica en un servicio que solo conoce el secreto HMAC
+        assertThrows(JwtException.class, () -> jwtUtil.extractUsername(ecToken));
+    }
+
+    @Test
+    void testEs256_WithoutKeysFailsUnlessEphemeralIsAllowed() {
+        assertThrows(IllegalStateException.class,
+                () -> new JwtKeyManager(SECRET_1, "ec1", "", "ES256", "", "", false));
+        assertNotNull(new JwtKeyManager(SECRET_1, "ec1", "", "ES256", "", "", true).current().getSigningKey());
+    }
+}
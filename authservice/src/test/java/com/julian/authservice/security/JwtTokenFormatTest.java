@@ -0,0 +1,41 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenFormatTest {
+
+    private final JwtKeyManager keyManager = new JwtKeyManager("ClaveDePruebaNumeroUno_0123456789abcdef", "k1");
+    private final JwtUtil standard = new JwtUtil(keyManager, AuthMetrics.noop(), "standard");
+    private final JwtUtil compact = new JwtUtil(keyManager, AuthMetrics.noop(), "compact");
+
+    @Test
+    void testCompactToken_IsShorterAndCarriesTheSameInformation() {
+        String standardToken = standard.generateAccessToken("julian@example.com", Role.ADMIN);
+        String compactToken = compact.generateAccessToken("julian@example.com", Role.ADMIN);
+
+        assertTrue(compactToken.length() < standardToken.length());
+
+        ValidatedToken token = compact.validateToken(compactToken);
+        assertEquals("julian@example.com", token.getSubject());
+        assertEquals("ADMIN", token.getRole());
+        assertEquals(22, token.getId().length());
+        // Sin 'iat' en el token: se deduce de 'exp'
+        assertTrue(Duration.between(token.getIssuedAt(), Instant.now()).abs().getSeconds() <= 2);
+    }
+
+    @Test
+    void testBothFormatsAreAcceptedDuringSwitchover() {
+        String standardToken = standard.generateAccessToken("julian@example.com", Role.USER);
+        String compactToken = compact.generateAccessToken("julian@example.com", Role.USER);
+
+        assertEquals("USER", compact.validateToken(standardToken).getRole());
+        assertEquals("USER", standard.validateToken(compactToken).getRole());
+    }
+}
@@ -0,0 +1,57 @@
+package com.julian.authservice.security;
+
+import com.julian.authservice.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRevocationIndexTest {
+
+    private final UserRevocationIndex index = new UserRevocationIndex();
+
+    @Test
+    void testIsRevoked_BoundaryIsTheRevocationMillisecond() {
+        Instant revokedAt = Instant.ofEpochMilli(1_700_000_010_500L);
+        index.revokeUser("julian@example.com", revokedAt);
+
+        assertTrue(index.isRevoked("julian@example.com", revokedAt.minusMillis(100)));
+        assertTrue(index.isRevoked("julian@example.com", revokedAt));
+        // Mismo segundo, pero emitido después: un login justo tras cambiar la contraseña
+        assertFalse(index.isRevoked("julian@example.com", revokedAt.plusMillis(1)));
+        assertFalse(index.isRevoked("otro@example.com", revokedAt.minusSeconds(60)));
+    }
+
+    @Test
+    void testIsRevoked_WholeSecondIatFromOlderTokensStaysConservative() {
+        index.revokeUser("julian@example.com", Instant.ofEpochMilli(1_700_000_010_500L));
+
+        assertTrue(index.isRevoked("julian@example.com", Instant.ofEpochSecond(1_700_000_010L)));
+        assertTrue(index.isRevoked("julian@example.com", null));
+    }
+
+    @Test
+    void testIsRevoked_TokenIssuedRightAfterRevocationIsAccepted() {
+        JwtUtil jwtUtil = new JwtUtil(new JwtKeyManager("ClaveDePruebaNumeroUno_0123456789abcdef", "k1"));
+        Instant revokedAt = Instant.now().minusMillis(1);
+        index.revokeUser("julian@example.com", revokedAt);
+
+        ValidatedToken token = jwtUtil.validateToken(jwtUtil.generateAccessToken("julian@example.com", Role.USER));
+
+        assertTrue(token.getIssuedAt().isAfter(revokedAt));
+        assertFalse(index.isRevoked(token.getSubject(), token.getIssuedAt()));
+    }
+
+    @Test
+    void testPurgeExpired_DropsWatermarksOlderThanAnAccessToken() {
+        long now = System.currentTimeMillis();
+        index.revokeUser("viejo@example.com", Instant.ofEpochMilli(now - JwtUtil.ACCESS_TOKEN_MILLIS - 1));
+        index.revokeUser("reciente@example.com", Instant.ofEpochMilli(now));
+
+        index.purgeExpired(now);
+
+        assertEquals(1, index.size());
+        assertTrue(index.isRevoked("reciente@example.com", Instant.ofEpochMilli(now - 1)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.julian.authservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // 6 por minuto (uno cada 10 s), ráfaga de 3 por email; 60/min y ráfaga 100 por IP
+        limiter = new LoginRateLimiter(6, 3, 60, 100, 1000, clock::get);
+    }
+
+    @Test
+    void testCheck_BurstIsAllowedThenRejectedWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("julian@example.com", "10.0.0.1");
+        }
+
+        TooManyLoginAttemptsException ex = assertThrows(TooManyLoginAttemptsException.class,
+                () -> limiter.check("JULIAN@example.com ", "10.0.0.1"));
+        assertEquals(10, ex.getRetryAfterSeconds());
+
+        // Otro email desde la misma IP no se ve afectado
+        limiter.check("otro@example.com", "10.0.0.1");
+    }
+
+    @Test
+    void testCheck_TokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("julian@example.com", "10.0.0.1");
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        limiter.check("julian@example.com", "10.0.0.1");
+        assertThrows(TooManyLoginAttemptsException.class, () -> limiter.check("julian@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void testReset_SuccessfulLoginClearsEmailBucket() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("julian@example.com", "10.0.0.1");
+        }
+
+        limiter.reset("julian@example.com");
+
+        limiter.check("julian@example.com", "10.0.0.1");
+    }
+}
@@ -0,0 +1,55 @@
+package com.julian.authservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 3);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testSubmit_FullQueueIsRejectedImmediately() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<String> busy = executor.submit(() -> {
+            running.countDown();
+            await(release);
+            return "hilo";
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "cola");
+
+        HashingCapacityExceededException ex = assertThrows(HashingCapacityExceededException.class,
+                () -> executor.submit(() -> "rechazada"));
+
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1, executor.getRejectedCount());
+        assertEquals(0, executor.getQueueRemainingCapacity());
+
+        // Al liberar el hilo se completan las aceptadas y vuelve a haber sitio
+        release.countDown();
+        assertEquals("hilo", busy.get(5, TimeUnit.SECONDS));
+        assertEquals("cola", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("otra", executor.submit(() -> "otra").get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
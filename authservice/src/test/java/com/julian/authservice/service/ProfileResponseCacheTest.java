@@ -0,0 +1,51 @@
+package com.julian.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.julian.authservice.repository.UserProfileView;
+import com.julian.authservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProfileResponseCacheTest {
+
+    private UserRepository userRepository;
+    private ProfileResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new ProfileResponseCache(userRepository, new ObjectMapper(), 100, Duration.ofSeconds(30));
+        when(userRepository.findProfileViewByEmail("julian@example.com"))
+                .thenReturn(Optional.of(new UserProfileView(7L, "julian", "julian@example.com", 3L)));
+    }
+
+    @Test
+    void testGet_SerializesOnceAndServesBytesFromCache() {
+        ProfileResponseCache.CachedProfile first = cache.get("julian@example.com");
+        ProfileResponseCache.CachedProfile second = cache.get("julian@example.com");
+
+        assertSame(first, second);
+        assertEquals("\"7.3\"", first.getEtag());
+        assertEquals("{\"id\":7,\"username\":\"julian\",\"email\":\"julian@example.com\"}",
+                new String(first.getBody(), StandardCharsets.UTF_8));
+        verify(userRepository, times(1)).findProfileViewByEmail("julian@example.com");
+    }
+
+    @Test
+    void testEvict_NextGetReadsNewVersion() {
+        String before = cache.get("julian@example.com").getEtag();
+        when(userRepository.findProfileViewByEmail("julian@example.com"))
+                .thenReturn(Optional.of(new UserProfileView(7L, "julian", "julian@example.com", 4L)));
+
+        cache.evict("julian@example.com");
+
+        assertNotEquals(before, cache.get("julian@example.com").getEtag());
+    }
+}
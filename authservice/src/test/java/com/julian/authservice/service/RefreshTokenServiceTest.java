@@ -0,0 +1,81 @@
+package com.julian.authservice.service;
+
+import com.julian.authservice.dto.LoginResponse;
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.RefreshTokenRepository;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository repository;
+    private RefreshTokenService service;
+    private SessionService sessionService;
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        jwtUtil = new JwtUtil(new JwtKeyManager("ClaveDePruebaNumeroUno_0123456789abcdef", "k1"));
+        sessionService = mock(SessionService.class);
+        service = new RefreshTokenService(repository, jwtUtil, AuthMetrics.noop(), sessionService, 1000, 100);
+
+        user = new User();
+        user.setEmail("julian@example.com");
+        user.setRole(Role.USER);
+
+        when(repository.markUsed(anyString(), any())).thenReturn(1);
+        when(repository.findIdsByFamilyId(anyString())).thenReturn(List.of());
+    }
+
+    @Test
+    void testRotate_ReturnsNewPairFromHotIndexWithoutLoadingRow() {
+        String refreshToken = service.issue(user);
+
+        LoginResponse response = service.rotate(refreshToken);
+
+        assertNotNull(response.getAccessToken());
+        assertNotEquals(refreshToken, response.getRefreshToken());
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void testRotate_ReusingRotatedTokenRevokesFamily() {
+        String refreshToken = service.issue(user);
+        service.rotate(refreshToken);
+
+        assertThrows(RefreshTokenReuseException.class, () -> service.rotate(refreshToken));
+        verify(repository).revokeFamily(anyString());
+        verify(sessionService).revoke(anyString()); // también los access tokens de la sesión
+    }
+
+    @Test
+    void testRotate_ConcurrentUseOnAnotherReplicaIsDetectedByDatabase() {
+        String refreshToken = service.issue(user);
+        when(repository.markUsed(anyString(), any())).thenReturn(0);
+
+        assertThrows(RefreshTokenReuseException.class, () -> service.rotate(refreshToken));
+        verify(repository).revokeFamily(anyString());
+    }
+
+    @Test
+    void testRotate_AccessTokenIsNotAcceptedAsRefreshToken() {
+        String accessToken = jwtUtil.generateAccessToken("julian@example.com", Role.USER, "s1");
+
+        assertThrows(UnsupportedJwtException.class, () -> service.rotate(accessToken));
+        verify(repository, never()).markUsed(anyString(), any());
+    }
+}
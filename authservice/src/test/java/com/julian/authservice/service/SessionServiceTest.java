@@ -0,0 +1,143 @@
+package com.julian.authservice.service;
+
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.bus.InvalidationDispatcher;
+import com.julian.authservice.bus.LocalInvalidationBus;
+import com.julian.authservice.model.UserSession;
+import com.julian.authservice.repository.UserSessionRepository;
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.CustomUserDetailsService;
+import com.julian.authservice.security.UserRevocationIndex;
+import com.julian.authservice.security.ValidatedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionServiceTest {
+
+    private UserSessionRepository repository;
+    private AccessTokenDenylist denylist;
+    private SessionService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserSessionRepository.class);
+        denylist = new AccessTokenDenylist(1000, 0.01);
+        InvalidationBus bus = new LocalInvalidationBus();
+        new InvalidationDispatcher(bus, mock(CustomUserDetailsService.class), new UserRevocationIndex(), denylist,
+                mock(ProfileResponseCache.class));
+        service = new SessionService(repository, bus, 3, 500);
+    }
+
+    @Test
+    void testOpen_WritesInBatchOnFlushNotOnLogin() {
+        service.open("s1", 1L, "curl/8", "127.0.0.1");
+        service.open("s2", 1L, "curl/8", "127.0.0.1");
+        service.touch("s1");
+        service.touch("s1");
+        verifyNoInteractions(repository);
+
+        service.flush();
+
+        verify(repository).saveAll(argThat(sessions -> ((List<?>) sessions).size() == 2));
+        verify(repository).touch(eq(List.of("s1")), any()); // dos refresh, un solo UPDATE
+        assertEquals(0, service.pending());
+    }
+
+    @Test
+    void testOpen_FullQueueFlushesSynchronously() {
+        service.open("s1", 1L, null, null);
+        service.open("s2", 1L, null, null);
+        service.open("s3", 1L, null, null);
+
+        verify(repository).saveAll(any());
+        assertEquals(0, service.pending());
+    }
+
+    @Test
+    void testFlush_DatabaseErrorKeepsSessionsForNextFlush() {
+        doThrow(new RuntimeException("db caída")).doReturn(List.of()).when(repository).saveAll(any());
+        service.open("s1", 1L, null, null);
+        service.open("s2", 1L, null, null);
+
+        service.flush();
+        assertEquals(2, service.pending());
+
+        service.flush();
+        verify(repository, times(2)).saveAll(argThat(sessions -> ((List<?>) sessions).size() == 2));
+        assertEquals(0, service.pending());
+    }
+
+    @Test
+    void testOpen_RejectsLoginWhenQueueStaysFull() {
+        doThrow(new RuntimeException("db caída")).when(repository).saveAll(any());
+        service.open("s1", 1L, null, null);
+        service.open("s2", 1L, null, null);
+        service.open("s3", 1L, null, null); // flush síncrono fallido: las tres siguen en cola
+
+        SessionCapacityExceededException ex = assertThrows(SessionCapacityExceededException.class,
+                () -> service.open("s4", 1L, null, null));
+        assertEquals(1, ex.getRetryAfterSeconds());
+        assertEquals(3, service.pending());
+    }
+
+    @Test
+    void testFlush_RowThatCanNeverBeInsertedIsDroppedAndTheRestSaved() {
+        doThrow(new DataIntegrityViolationException("valor demasiado largo")).when(repository).saveAll(any());
+        doThrow(new DataIntegrityViolationException("valor demasiado largo"))
+                .when(repository).save(argThat(session -> session != null && "s2".equals(session.getId())));
+        service.open("s1", 1L, null, null);
+        service.open("s2", 1L, null, null);
+
+        service.flush();
+
+        verify(repository, times(2)).save(any());
+        assertEquals(0, service.pending()); // la fila imposible no bloquea la cola
+    }
+
+    @Test
+    void testOpen_IpAddressFitsTheColumn() {
+        service.open("s1", 1L, null, "fe80:0:0:0:abcd:ef01:2345:6789%enp0s31f6-interfaz-larga");
+        service.flush();
+
+        verify(repository).saveAll(argThat(sessions ->
+                "fe80:0:0:0:abcd:ef01:2345:6789".equals(((List<UserSession>) sessions).get(0).getIpAddress())));
+    }
+
+    @Test
+    void testFlush_FailedTouchIsRetried() {
+        doThrow(new RuntimeException("db caída")).doReturn(1).when(repository).touch(any(), any());
+        service.touch("s1");
+
+        service.flush();
+        assertEquals(1, service.pending());
+
+        service.flush();
+        verify(repository, times(2)).touch(eq(List.of("s1")), any());
+        assertEquals(0, service.pending());
+    }
+
+    @Test
+    void testRevoke_RejectsTokensOfThatSessionWithoutDatabase() {
+        when(repository.revoke("s1", 1L)).thenReturn(1);
+        ValidatedToken token = new ValidatedToken("jti-1", "julian@example.com", "USER",
+                Instant.now(), Instant.now().plusSeconds(900), "s1");
+
+        assertTrue(service.revoke(1L, "s1"));
+        assertTrue(denylist.isRevoked(token));
+    }
+
+    @Test
+    void testRevoke_SessionOfAnotherUserIsNotRevoked() {
+        when(repository.revoke("s1", 2L)).thenReturn(0);
+
+        assertFalse(service.revoke(2L, "s1"));
+        assertFalse(denylist.isRevoked("s1"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.julian.authservice.service;
+
+import com.julian.authservice.dto.IntrospectionResponse;
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.security.AccessTokenDenylist;
+import com.julian.authservice.security.JwtKeyManager;
+import com.julian.authservice.security.JwtUtil;
+import com.julian.authservice.security.UserRevocationIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenIntrospectionServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private JwtUtil jwtUtil;
+    private AccessTokenDenylist denylist;
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(new JwtKeyManager("ClaveDePruebaNumeroUno_0123456789abcdef", "k1"), new AuthMetrics(registry));
+        denylist = new AccessTokenDenylist(1000, 0.01);
+        service = new TokenIntrospectionService(jwtUtil, denylist, new UserRevocationIndex(), 1000, 4, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testIntrospect_RepeatedTokenIsParsedOnce() {
+        String token = jwtUtil.generateAccessToken("julian@example.com", Role.ADMIN);
+
+        IntrospectionResponse first = service.introspect(token);
+        IntrospectionResponse second = service.introspect(token);
+
+        assertTrue(first.isActive());
+        assertEquals("julian@example.com", second.getSub());
+        assertEquals("ADMIN", second.getRole());
+        assertEquals(1, registry.get("auth.jwt.parse").timer().count());
+    }
+
+    @Test
+    void testIntrospect_RevocationIsCheckedOnCachedTokens() {
+        String token = jwtUtil.generateAccessToken("julian@example.com", Role.USER);
+        IntrospectionResponse before = service.introspect(token);
+
+        denylist.revoke(before.getJti(), Instant.now().plusSeconds(60));
+
+        assertFalse(service.introspect(token).isActive());
+    }
+
+    @Test
+    void testIntrospectAll_KeepsOrderAndMarksInvalidTokensInactive() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.add(i % 5 == 0 ? "invalido-" + i : jwtUtil.generateAccessToken("user" + i + "@example.com", Role.USER));
+        }
+
+        List<IntrospectionResponse> results = service.introspectAll(tokens);
+
+        assertEquals(50, results.size());
+        for (int i = 0; i < 50; i++) {
+            if (i % 5 == 0) {
+                assertFalse(results.get(i).isActive());
+            } else {
+                assertEquals("user" + i + "@example.com", results.get(i).getSub());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.julian.authservice.service;
+
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Verifica que las violaciones reales de H2 se traducen al campo correcto
+@DataJpaTest
+class UserConflictExceptionTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testDuplicateEmail_IsTranslatedToEmailConflict() {
+        userRepository.saveAndFlush(user("julian", "julian@example.com"));
+
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(user("otro", "julian@example.com")));
+
+        assertEquals("email", UserConflictException.from(ex).getField());
+    }
+
+    @Test
+    void testDuplicateUsername_IsTranslatedToUsernameConflict() {
+        userRepository.saveAndFlush(user("julian", "julian@example.com"));
+
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(user("julian", "otro@example.com")));
+
+        assertEquals("username", UserConflictException.from(ex).getField());
+    }
+
+    private static User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("hashed123");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
@@ -0,0 +1,207 @@
+package com.julian.authservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.model.User;
+import com.julian.authservice.repository.UserIdentityView;
+import com.julian.authservice.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong ids = new AtomicLong();
+    private final List<User> saved = new ArrayList<>();
+
+    private UserRepository userRepository;
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "{bcrypt}hash-" + inv.getArgument(0));
+        when(userRepository.findByEmailIn(any())).thenReturn(List.of());
+        when(userRepository.findByUsernameIn(any())).thenReturn(List.of());
+        when(userRepository.saveAll(any())).thenAnswer(inv -> {
+            Iterable<User> users = inv.getArgument(0);
+            users.forEach(this::assignId);
+            return users;
+        });
+
+        service = new UserImportService(userRepository, mock(EntityManager.class), passwordEncoder,
+                mock(PlatformTransactionManager.class), objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testNdjson_CreatesValidRowsAndReportsInvalidOnes() throws Exception {
+        List<JsonNode> results = run(UserImportService.Format.NDJSON, """
+                {"username":"ana","email":"ana@example.com","password":"Secreta1","role":"admin"}
+                no es json
+
+                {"username":"al","email":"al@example.com","password":"Secreta1"}
+                {"username":"beto","email":"no-es-correo","password":"Secreta1"}
+                {"username":"carla","email":"carla@example.com","password":"corta"}
+                {"username":"dani","email":"dani@example.com","passwordHash":"{bcrypt}$2a$10$abc"}
+                {"username":"eva","email":"eva@example.com","passwordHash":"md5:abc"}
+                """);
+
+        assertEquals(7, results.size());
+        assertResult(results.get(0), 1, "created");
+        assertResult(results.get(1), 2, "invalid");
+        assertEquals("Fila mal formada", results.get(1).get("error").asText());
+        assertResult(results.get(2), 4, "invalid"); // username de 2 caracteres
+        assertEquals("El nombre de usuario debe tener entre 3 y 20 caracteres", results.get(2).get("error").asText());
+        assertResult(results.get(3), 5, "invalid");
+        assertEquals("Debe ser un correo válido", results.get(3).get("error").asText());
+        assertResult(results.get(4), 6, "invalid");
+        assertEquals("La contraseña debe tener al menos 6 caracteres", results.get(4).get("error").asText());
+        assertResult(results.get(5), 7, "created"); // hash importado: la longitud de la contraseña no aplica
+        assertResult(results.get(6), 8, "invalid");
+
+        assertEquals(2, saved.size());
+        assertEquals(Role.ADMIN, saved.get(0).getRole());
+        assertEquals("{bcrypt}hash-Secreta1", saved.get(0).getPassword());
+        assertEquals("{bcrypt}$2a$10$abc", saved.get(1).getPassword());
+    }
+
+    @Test
+    void testCsv_MapsColumnsByHeaderAndDetectsDuplicates() throws Exception {
+        when(userRepository.findByEmailIn(any())).thenReturn(List.of(identity("tomado@example.com", "tomado")));
+
+        List<JsonNode> results = run(UserImportService.Format.CSV, """
+                email,password,username
+                ana@example.com,Secreta1,ana
+                ana@example.com,Secreta1,ana2
+                tomado@example.com,Secreta1,otro
+                """);
+
+        assertResult(results.get(0), 2, "created");
+        assertEquals("ana", saved.get(0).getUsername());
+        assertResult(results.get(1), 3, "conflict"); // repetido dentro del lote
+        assertEquals("email", results.get(1).get("field").asText());
+        assertResult(results.get(2), 4, "conflict"); // ya existe en la base de datos
+        assertEquals(1, saved.size());
+    }
+
+    @Test
+    void testCsv_BadHeaderIsReportedAsErrorRow() throws Exception {
+        List<JsonNode> results = run(UserImportService.Format.CSV, """
+                nombre,correo
+                ana,ana@example.com
+                """);
+
+        assertEquals(1, results.size());
+        assertResult(results.get(0), 1, "invalid");
+        assertEquals("La cabecera CSV debe incluir username y email", results.get(0).get("error").asText());
+        verify(userRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testInsertConflict_RetriesRowByRow() throws Exception {
+        doThrow(new DataIntegrityViolationException("lote")).when(userRepository).saveAll(any());
+        when(userRepository.saveAndFlush(any())).thenAnswer(inv -> {
+            User user = inv.getArgument(0);
+            if (user.getEmail().equals("ana@example.com")) {
+                throw new DataIntegrityViolationException("Unique index or primary key violation: UK_USERS_EMAIL");
+            }
+            return assignId(user);
+        });
+
+        List<JsonNode> results = run(UserImportService.Format.NDJSON, """
+                {"username":"ana","email":"ana@example.com","password":"Secreta1"}
+                {"username":"beto","email":"beto@example.com","password":"Secreta1"}
+                """);
+
+        assertResult(results.get(0), 1, "conflict");
+        assertEquals("email", results.get(0).get("field").asText());
+        assertResult(results.get(1), 2, "created");
+        verify(userRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void testResults_AreFlushedAfterEachChunk() throws Exception {
+        List<Integer> flushedLines = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedLines.add((int) toString(StandardCharsets.UTF_8).lines().count());
+            }
+        };
+
+        service.importUsers(input("""
+                {"username":"ana","email":"ana@example.com","password":"Secreta1"}
+                {"username":"beto","email":"beto@example.com","password":"Secreta1"}
+                {"username":"carla","email":"carla@example.com","password":"Secreta1"}
+                """), UserImportService.Format.NDJSON, out);
+
+        // chunk-size = 2: un flush con las dos primeras filas y otro con la última
+        assertEquals(List.of(2, 3), flushedLines);
+        verify(userRepository, times(2)).saveAll(any());
+    }
+
+    private List<JsonNode> run(UserImportService.Format format, String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.importUsers(input(body), format, out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User assignId(User user) {
+        user.setId(ids.incrementAndGet());
+        saved.add(user);
+        return user;
+    }
+
+    private static void assertResult(JsonNode result, long line, String status) {
+        assertEquals(line, result.get("line").asLong());
+        assertEquals(status, result.get("status").asText(), result.toString());
+    }
+
+    private static UserIdentityView identity(String email, String username) {
+        return new UserIdentityView() {
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+}
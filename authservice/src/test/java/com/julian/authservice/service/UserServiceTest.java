@@ -0,0 +1,69 @@
+package com.julian.authservice.service;
+
+import com.julian.authservice.bus.InvalidationBus;
+import com.julian.authservice.dto.LoginRequest;
+import com.julian.authservice.metrics.AuthMetrics;
+import com.julian.authservice.model.Role;
+import com.julian.authservice.repository.UserCredentialsView;
+import com.julian.authservice.repository.UserRepository;
+import com.julian.authservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private static final String DUMMY_HASH = "{bcrypt}$2a$10$dummy";
+
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private SimpleMeterRegistry registry;
+    private UserService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn(DUMMY_HASH); // el constructor calcula el hash ficticio
+        registry = new SimpleMeterRegistry();
+        service = new UserService(userRepository, passwordEncoder, mock(JwtUtil.class), mock(InvalidationBus.class),
+                mock(RefreshTokenService.class), mock(SessionService.class), new AuthMetrics(registry));
+    }
+
+    @Test
+    void testLogin_UnknownEmailStillVerifiesAgainstDummyHash() {
+        when(userRepository.findCredentialsByEmail("nadie@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> service.loginUser(login("nadie@example.com", "MiPassword123!")));
+
+        // Mismo trabajo de hash que con un email existente: el tiempo de respuesta no delata la cuenta
+        verify(passwordEncoder).matches("MiPassword123!", DUMMY_HASH);
+        assertEquals(1, registry.get("auth.login").tag("outcome", "unknown_user").timer().count());
+    }
+
+    @Test
+    void testLogin_WrongPasswordVerifiesAgainstStoredHash() {
+        when(userRepository.findCredentialsByEmail("julian@example.com")).thenReturn(
+                Optional.of(new UserCredentialsView(1L, "julian@example.com", "{bcrypt}real", Role.USER)));
+
+        assertThrows(RuntimeException.class, () -> service.loginUser(login("julian@example.com", "otra")));
+
+        verify(passwordEncoder).matches("otra", "{bcrypt}real");
+        verify(passwordEncoder, never()).matches(anyString(), eq(DUMMY_HASH));
+    }
+
+    private static LoginRequest login(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}